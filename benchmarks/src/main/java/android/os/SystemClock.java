@@ -0,0 +1,18 @@
+package android.os;
+
+/**
+ * JVM stand-in for android.os.SystemClock backed by System.nanoTime
+ */
+public final class SystemClock {
+
+    private SystemClock() {
+    }
+
+    public static long elapsedRealtime() {
+        return System.nanoTime() / 1000000L;
+    }
+
+    public static long elapsedRealtimeNanos() {
+        return System.nanoTime();
+    }
+}
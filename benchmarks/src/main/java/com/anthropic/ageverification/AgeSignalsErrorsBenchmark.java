@@ -0,0 +1,51 @@
+package com.anthropic.ageverification;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-call cost of answering a failed fetch, for every Play error code plus an unknown one
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AgeSignalsErrorsBenchmark {
+
+    @Param({"-1", "-2", "-3", "-4", "-5", "-6", "-7", "-8", "-9", "-100", "42"})
+    public int code;
+
+    private Exception failure;
+    private AgeSignalsSnapshot lastKnown;
+
+    @Setup
+    public void setUp() {
+        failure = new AgeSignalsProviderException(code, "Play error " + code, null);
+        lastKnown = BenchmarkSnapshots.create("SUPERVISED", "13-15");
+    }
+
+    /** handleAgeSignalsError: exception to serialized error message */
+    @Benchmark
+    public String handleError() {
+        return AgeSignalsErrors.resultFor(failure, 1).getMessage();
+    }
+
+    /** handleAgeSignalsError with AgeVerificationErrorLastKnown on and a snapshot to attach */
+    @Benchmark
+    public String handleErrorWithLastKnown() {
+        return AgeSignalsErrors.resultFor(failure, 1, lastKnown).getMessage();
+    }
+}
@@ -0,0 +1,100 @@
+package com.anthropic.ageverification;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cordova.PluginResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-call cost of turning an age signals snapshot into the PluginResult handed to the bridge
+ * Each benchmark covers one action's response, through the serialized message Cordova sends.
+ * Run with -prof gc for allocation rates.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AgeSignalsResponsesBenchmark {
+
+    private static final int[] AGE_GATES = {13, 16, 18};
+    private static final int[] MINIMUM_AGES = {13, 16, 18, 21};
+
+    @Param({"VERIFIED", "SUPERVISED", "SUPERVISED_APPROVAL_PENDING", "SUPERVISED_APPROVAL_DENIED", "UNKNOWN"})
+    public String status;
+
+    @Param({"none", "0-12", "13-15", "16-17", "18-"})
+    public String bounds;
+
+    private AgeSignalsSnapshot snapshot;
+    private byte[] itemMinimumAges;
+
+    @Setup
+    public void setUp() {
+        snapshot = BenchmarkSnapshots.create(status, bounds);
+        itemMinimumAges = new byte[256];
+        for (int i = 0; i < itemMinimumAges.length; i++) {
+            itemMinimumAges[i] = (byte) (i % 22);
+        }
+    }
+
+    /** requestAgeRange */
+    @Benchmark
+    public String ageRange() {
+        JsonResponseWriter writer = JsonResponseWriter.obtain().beginObject();
+        AgeSignalsResponses.writeAgeRangeResult(writer, snapshot, AGE_GATES);
+        return send(writer);
+    }
+
+    /** isUserAboveAge */
+    @Benchmark
+    public String ageCheck() {
+        JsonResponseWriter writer = JsonResponseWriter.obtain().beginObject();
+        AgeSignalsResponses.writeAgeCheckResult(writer, snapshot, 18);
+        return send(writer);
+    }
+
+    /** isUserAboveAges */
+    @Benchmark
+    public String ageChecks() {
+        JsonResponseWriter writer = JsonResponseWriter.obtain().beginObject();
+        AgeSignalsResponses.writeAgeChecksResult(writer, snapshot, MINIMUM_AGES);
+        return send(writer);
+    }
+
+    /** checkAgeSignals */
+    @Benchmark
+    public String fullAgeSignals() {
+        JsonResponseWriter writer = JsonResponseWriter.obtain().beginObject();
+        AgeSignalsResponses.writeFullAgeSignalsResult(writer, snapshot);
+        return send(writer);
+    }
+
+    /** The isUserAboveAge decision alone */
+    @Benchmark
+    public int evaluateAgeGate() {
+        return AgeSignalsResponses.evaluateAgeGate(snapshot, 18);
+    }
+
+    /** filterByMinimumAge bitset for 256 items */
+    @Benchmark
+    public byte[] filterItems() {
+        return AgeSignalsResponses.filterItems(snapshot, itemMinimumAges);
+    }
+
+    private static String send(JsonResponseWriter writer) {
+        PluginResult result = new RawJsonPluginResult(PluginResult.Status.OK, writer.endObject().toJson());
+        return result.getMessage();
+    }
+}
@@ -0,0 +1,29 @@
+package com.anthropic.ageverification;
+
+import com.anthropic.ageverification.AgeSignalsSnapshot.UserStatus;
+
+/**
+ * Age signals snapshots for every user status and age-bounds combination Play can report
+ */
+final class BenchmarkSnapshots {
+
+    private BenchmarkSnapshots() {
+    }
+
+    static AgeSignalsSnapshot create(String status, String bounds) {
+        Integer lower = null;
+        Integer upper = null;
+        if (!"none".equals(bounds)) {
+            int dash = bounds.indexOf('-');
+            lower = Integer.valueOf(bounds.substring(0, dash));
+            String upperText = bounds.substring(dash + 1);
+            upper = upperText.isEmpty() ? null : Integer.valueOf(upperText);
+        }
+        UserStatus userStatus = UserStatus.valueOf(status);
+        boolean supervised = userStatus != UserStatus.VERIFIED && userStatus != UserStatus.UNKNOWN;
+        return new AgeSignalsSnapshot(userStatus, lower, upper,
+            supervised ? "install-5f3c2a9e" : null,
+            supervised ? "2025-06-01T12:00:00Z" : null,
+            System.currentTimeMillis());
+    }
+}
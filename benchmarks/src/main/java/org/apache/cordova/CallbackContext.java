@@ -0,0 +1,51 @@
+package org.apache.cordova;
+
+import org.json.JSONObject;
+
+/**
+ * Subset of Cordova's CallbackContext that records the last result instead of sending it
+ */
+public class CallbackContext {
+
+    private final String callbackId;
+    private volatile PluginResult lastResult;
+
+    public CallbackContext(String callbackId) {
+        this.callbackId = callbackId;
+    }
+
+    public String getCallbackId() {
+        return callbackId;
+    }
+
+    public void sendPluginResult(PluginResult pluginResult) {
+        lastResult = pluginResult;
+    }
+
+    public void success() {
+        sendPluginResult(new PluginResult(PluginResult.Status.OK));
+    }
+
+    public void success(String message) {
+        sendPluginResult(new PluginResult(PluginResult.Status.OK, message));
+    }
+
+    public void success(int message) {
+        sendPluginResult(new PluginResult(PluginResult.Status.OK, message));
+    }
+
+    public void error(String message) {
+        sendPluginResult(new PluginResult(PluginResult.Status.ERROR, message));
+    }
+
+    public void error(JSONObject message) {
+        sendPluginResult(new PluginResult(PluginResult.Status.ERROR, message));
+    }
+
+    /**
+     * The most recent result, or null if nothing was sent
+     */
+    public PluginResult getLastResult() {
+        return lastResult;
+    }
+}
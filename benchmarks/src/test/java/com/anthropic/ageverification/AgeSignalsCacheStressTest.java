@@ -0,0 +1,218 @@
+package com.anthropic.ageverification;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.anthropic.ageverification.AgeSignalsSnapshot.UserStatus;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Hammers AgeSignalsCache from many threads and checks the invariants readers rely on
+ */
+public class AgeSignalsCacheStressTest {
+
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+    private static final int OPERATIONS = 50000;
+
+    private static final String FETCHED = "fetched";
+    private static final String RESTORED = "restored";
+
+    private static AgeSignalsSnapshot snapshot(String origin, int id) {
+        return new AgeSignalsSnapshot(UserStatus.VERIFIED, 18, null, origin + "-" + id, null,
+            System.currentTimeMillis());
+    }
+
+    private static boolean isRestored(AgeSignalsSnapshot snapshot) {
+        return snapshot.installId.startsWith(RESTORED);
+    }
+
+    @Test
+    public void restoredSnapshotNeverOutlivesAFetch() throws Exception {
+        AgeSignalsCache cache = new AgeSignalsCache();
+        WrittenSnapshots written = new WrittenSnapshots();
+        AtomicBoolean fetched = new AtomicBoolean();
+
+        run((id, iteration) -> {
+            if (iteration % 2 == 0) {
+                AgeSignalsSnapshot restored = snapshot(RESTORED, id * OPERATIONS + iteration);
+                written.add(restored);
+                cache.restore(restored);
+            } else {
+                AgeSignalsSnapshot live = snapshot(FETCHED, id * OPERATIONS + iteration);
+                written.add(live);
+                cache.put(live);
+                fetched.set(true);
+            }
+        }, () -> {
+            // Read the flag first: a put that finished before this read has cleared the restored slot
+            boolean afterFetch = fetched.get();
+            AgeSignalsSnapshot restored = cache.getRestored();
+            if (afterFetch) {
+                assertNull("restored snapshot served after a fetch", restored);
+            }
+            AgeSignalsSnapshot fresh = cache.getFresh(System.currentTimeMillis());
+            if (fresh != null) {
+                assertFalse("fresh entry must be fetched, not restored", isRestored(fresh));
+                assertTrue("fresh entry was never written", written.contains(fresh));
+            }
+            AgeSignalsSnapshot lastKnown = cache.getLastKnown();
+            if (afterFetch) {
+                assertNotNull(lastKnown);
+                assertFalse("last-known must prefer the fetched entry", isRestored(lastKnown));
+            }
+        });
+
+        assertNull(cache.getRestored());
+        AgeSignalsSnapshot last = cache.getLastKnown();
+        assertNotNull(last);
+        assertFalse(isRestored(last));
+        assertSame(last, cache.getFresh(System.currentTimeMillis()));
+    }
+
+    @Test
+    public void readersSeeConsistentEntriesThroughInvalidateAndTtlChanges() throws Exception {
+        AgeSignalsCache cache = new AgeSignalsCache();
+        WrittenSnapshots written = new WrittenSnapshots();
+        long ttlMs = AgeSignalsCache.DEFAULT_TTL_MS;
+
+        run((id, iteration) -> {
+            switch (iteration % 5) {
+                case 0:
+                    cache.invalidate();
+                    break;
+                case 1:
+                    AgeSignalsSnapshot restored = snapshot(RESTORED, id * OPERATIONS + iteration);
+                    written.add(restored);
+                    cache.restore(restored);
+                    break;
+                case 2:
+                    cache.setTtlMs(iteration % 10 == 2 ? 0 : ttlMs);
+                    break;
+                case 3:
+                    cache.setSoftTtlMs(iteration % 10 == 3 ? ttlMs / 2 : ttlMs * 2);
+                    break;
+                default:
+                    AgeSignalsSnapshot live = snapshot(FETCHED, id * OPERATIONS + iteration);
+                    written.add(live);
+                    cache.put(live);
+                    break;
+            }
+        }, () -> {
+            AgeSignalsSnapshot fresh = cache.getFresh(System.currentTimeMillis());
+            if (fresh != null) {
+                assertFalse("fresh entry must be fetched, not restored", isRestored(fresh));
+                assertTrue("fresh entry was never written", written.contains(fresh));
+            }
+            AgeSignalsSnapshot restored = cache.getRestored();
+            if (restored != null) {
+                assertTrue("restored slot holds a fetched entry", isRestored(restored));
+            }
+            AgeSignalsSnapshot lastKnown = cache.getLastKnown();
+            if (lastKnown != null) {
+                assertTrue("last-known entry was never written", written.contains(lastKnown));
+            }
+        });
+
+        cache.setTtlMs(ttlMs);
+        cache.invalidate();
+        assertNull(cache.getLastKnown());
+        AgeSignalsSnapshot restored = snapshot(RESTORED, -1);
+        cache.restore(restored);
+        assertSame(restored, cache.getLastKnown());
+        assertNull(cache.getFresh(System.currentTimeMillis()));
+    }
+
+    private interface Write {
+        void run(int writer, int iteration);
+    }
+
+    /**
+     * Start writers and readers together and rethrow the first failure any of them hit
+     */
+    private static void run(Write write, Runnable read) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> writers = new ArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+
+        for (int i = 0; i < WRITERS; i++) {
+            int id = i;
+            writers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int iteration = 0; iteration < OPERATIONS && failure.get() == null; iteration++) {
+                        write.run(id, iteration);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        for (int i = 0; i < READERS; i++) {
+            readers.add(new Thread(() -> {
+                try {
+                    start.await();
+                    do {
+                        read.run();
+                    } while (writing.get() && failure.get() == null);
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        for (Thread thread : writers) {
+            thread.start();
+        }
+        for (Thread thread : readers) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : writers) {
+            thread.join(TimeUnit.MINUTES.toMillis(1));
+        }
+        writing.set(false);
+        for (Thread thread : readers) {
+            thread.join(TimeUnit.MINUTES.toMillis(1));
+        }
+
+        Throwable thrown = failure.get();
+        if (thrown instanceof Error) {
+            throw (Error) thrown;
+        }
+        if (thrown != null) {
+            throw new AssertionError(thrown);
+        }
+    }
+
+    /**
+     * Every snapshot handed to the cache, by identity
+     */
+    private static final class WrittenSnapshots {
+        private final Set<AgeSignalsSnapshot> snapshots =
+            Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        void add(AgeSignalsSnapshot snapshot) {
+            snapshots.add(snapshot);
+        }
+
+        boolean contains(AgeSignalsSnapshot snapshot) {
+            return snapshots.contains(snapshot);
+        }
+    }
+}
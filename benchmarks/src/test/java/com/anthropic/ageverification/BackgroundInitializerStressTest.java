@@ -0,0 +1,141 @@
+package com.anthropic.ageverification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Races BackgroundInitializer construction against callers queueing work and reading its Status
+ */
+public class BackgroundInitializerStressTest {
+
+    private static final int ROUNDS = 200;
+    private static final int CALLERS = 4;
+    private static final int CALLS_PER_CALLER = 500;
+
+    @Test
+    public void everyCallbackRunsOnceAndStatusIsAlwaysConsistent() throws Exception {
+        for (int round = 0; round < ROUNDS; round++) {
+            race(round % 2 == 0);
+        }
+    }
+
+    private static void race(boolean succeed) throws Exception {
+        BackgroundInitializer<Object> initializer = new BackgroundInitializer<>();
+        Object value = new Object();
+        Exception error = new Exception("construction failed");
+        AtomicInteger ready = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+
+        BackgroundInitializer.Callback<Object> callback = new BackgroundInitializer.Callback<Object>() {
+            @Override
+            public void onReady(Object received) {
+                if (received != value) {
+                    failure.compareAndSet(null, new AssertionError("onReady got the wrong value"));
+                }
+                ready.incrementAndGet();
+            }
+
+            @Override
+            public void onFailed(Exception received) {
+                if (received != error) {
+                    failure.compareAndSet(null, new AssertionError("onFailed got the wrong error"));
+                }
+                failed.incrementAndGet();
+            }
+        };
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    for (int call = 0; call < CALLS_PER_CALLER; call++) {
+                        initializer.whenReady(callback);
+                        checkStatus(initializer.getStatus(), value, error);
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            }));
+        }
+        Thread constructor = new Thread(() -> {
+            try {
+                start.await();
+                initializer.start(() -> {
+                    if (!succeed) {
+                        throw error;
+                    }
+                    return value;
+                }, Runnable::run);
+                // A second start must not replace the first outcome
+                initializer.start(Object::new, Runnable::run);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            }
+        });
+        threads.add(constructor);
+
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.MINUTES.toMillis(1));
+        }
+
+        Throwable thrown = failure.get();
+        if (thrown instanceof Error) {
+            throw (Error) thrown;
+        }
+        if (thrown != null) {
+            throw new AssertionError(thrown);
+        }
+
+        int calls = CALLERS * CALLS_PER_CALLER;
+        assertEquals("every queued callback runs exactly once", calls, ready.get() + failed.get());
+        assertEquals(succeed ? calls : 0, ready.get());
+        BackgroundInitializer.Status<Object> status = initializer.getStatus();
+        assertEquals(succeed ? BackgroundInitializer.State.READY : BackgroundInitializer.State.FAILED,
+            status.state);
+        checkStatus(status, value, error);
+    }
+
+    /**
+     * State, value, error and duration must always describe the same moment
+     */
+    private static void checkStatus(BackgroundInitializer.Status<Object> status, Object value,
+                                    Exception error) {
+        switch (status.state) {
+            case INITIALIZING:
+                assertNull(status.value);
+                assertNull(status.error);
+                assertEquals(-1, status.durationMs);
+                break;
+            case READY:
+                assertSame(value, status.value);
+                assertNull(status.error);
+                assertTrue(status.durationMs >= 0);
+                break;
+            case FAILED:
+                assertNull(status.value);
+                assertSame(error, status.error);
+                assertTrue(status.durationMs >= 0);
+                break;
+            default:
+                throw new AssertionError("unexpected state " + status.state);
+        }
+    }
+}
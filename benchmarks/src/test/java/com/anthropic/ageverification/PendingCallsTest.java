@@ -0,0 +1,145 @@
+package com.anthropic.ageverification;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cordova.CallbackContext;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Checks that cancel, page reset and destroy release every CallbackContext they drop, even while
+ * the PendingCall itself is still referenced, as it is by listeners queued on a shared fetch
+ */
+public class PendingCallsTest {
+
+    private static final int CALLS = 64;
+
+    private final ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+
+    @After
+    public void shutDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void cancelAndResetReleaseEveryCallback() {
+        PendingCalls pendingCalls = new PendingCalls();
+        // Held for the whole test, standing in for fetch listeners and deadline tasks
+        List<PendingCall> calls = new ArrayList<>();
+        List<WeakReference<CallbackContext>> callbacks = new ArrayList<>();
+        List<ScheduledFuture<?>> deadlines = new ArrayList<>();
+
+        for (int i = 0; i < CALLS; i++) {
+            CallbackContext callbackContext = new CallbackContext("callback-" + i);
+            callbacks.add(new WeakReference<>(callbackContext));
+            PendingCall call = pendingCalls.register(callbackContext, "request-" + i);
+            ScheduledFuture<?> deadline = scheduler.schedule(() -> { }, 1, TimeUnit.HOURS);
+            call.setDeadline(deadline);
+            deadlines.add(deadline);
+            calls.add(call);
+        }
+        assertEquals(CALLS, pendingCalls.size());
+
+        // Cancel every other call by id, as cancel(requestId) does
+        for (int i = 0; i < CALLS; i += 2) {
+            assertNotNull(pendingCalls.cancel("request-" + i));
+            assertNull("a cancelled call can't be cancelled twice", pendingCalls.cancel("request-" + i));
+        }
+        assertEquals(CALLS / 2, pendingCalls.size());
+
+        pendingCalls.reset();
+        assertEquals(0, pendingCalls.size());
+        assertNull(pendingCalls.cancel("request-1"));
+        for (PendingCall call : calls) {
+            assertNull("a dropped call must not answer", call.settle());
+        }
+        for (ScheduledFuture<?> deadline : deadlines) {
+            assertTrue("settling cancels the deadline", deadline.isCancelled());
+        }
+
+        assertCollected(callbacks);
+        assertEquals(CALLS, calls.size());
+    }
+
+    @Test
+    public void resetKeepsCallsFromTheNewPage() {
+        PendingCalls pendingCalls = new PendingCalls();
+        PendingCall oldPage = pendingCalls.register(new CallbackContext("old"), "old");
+        pendingCalls.reset();
+        CallbackContext current = new CallbackContext("new");
+        PendingCall newPage = pendingCalls.register(current, "new");
+
+        assertEquals(1, pendingCalls.size());
+        assertNull(oldPage.settle());
+        pendingCalls.reset();
+        assertNull("the second reset drops the page loaded by the first", newPage.settle());
+        assertEquals(0, pendingCalls.size());
+
+        CallbackContext after = new CallbackContext("after");
+        PendingCall afterReset = pendingCalls.register(after, null);
+        assertSame(after, afterReset.settle());
+        assertEquals(0, pendingCalls.size());
+    }
+
+    @Test
+    public void destroyReleasesCallbacksFromEveryPage() {
+        PendingCalls pendingCalls = new PendingCalls();
+        List<PendingCall> calls = new ArrayList<>();
+        List<WeakReference<CallbackContext>> callbacks = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            CallbackContext callbackContext = new CallbackContext("callback-" + i);
+            callbacks.add(new WeakReference<>(callbackContext));
+            calls.add(pendingCalls.register(callbackContext, null));
+            if (i % 8 == 7) {
+                // Calls made on a page that hasn't finished resetting yet
+                pendingCalls.reset();
+                calls.add(pendingCalls.register(new CallbackContext("late-" + i), null));
+            }
+        }
+
+        pendingCalls.clear();
+        assertEquals(0, pendingCalls.size());
+        for (PendingCall call : calls) {
+            assertNull(call.settle());
+        }
+        assertCollected(callbacks);
+    }
+
+    /**
+     * Collect garbage until every referent is gone, failing if any survives
+     */
+    private static void assertCollected(List<WeakReference<CallbackContext>> callbacks) {
+        for (int attempt = 0; attempt < 50 && !allCleared(callbacks); attempt++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        for (int i = 0; i < callbacks.size(); i++) {
+            assertNull("CallbackContext " + i + " is still referenced", callbacks.get(i).get());
+        }
+    }
+
+    private static boolean allCleared(List<WeakReference<CallbackContext>> callbacks) {
+        for (WeakReference<CallbackContext> callback : callbacks) {
+            if (callback.get() != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
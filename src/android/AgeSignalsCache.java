@@ -0,0 +1,145 @@
+package com.anthropic.ageverification;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Process-wide cache of the most recent age signals snapshot
+ * Shared by every plugin instance so repeat gate checks don't round trip to Google Play.
+ *
+ * Besides the live entry, the cache can hold a snapshot restored from disk. It is only served
+ * (marked stale) until the first successful fetch in this process replaces it.
+ *
+ * The TTL is a hard limit. An optional soft TTL below it marks entries that are still served but
+ * should be refreshed in the background (stale-while-revalidate).
+ *
+ * Entries and TTLs live in one immutable State swapped by compare-and-set, so a reader on any
+ * thread sees a consistent entry and TTL pair without locking.
+ */
+final class AgeSignalsCache {
+
+    static final int DEFAULT_TTL_MS = 5 * 60 * 1000;
+
+    private static final class State {
+        final AgeSignalsSnapshot latest;
+        final AgeSignalsSnapshot restored;
+        final long ttlMs;
+        final long softTtlMs;
+
+        State(AgeSignalsSnapshot latest, AgeSignalsSnapshot restored, long ttlMs, long softTtlMs) {
+            this.latest = latest;
+            this.restored = restored;
+            this.ttlMs = ttlMs;
+            this.softTtlMs = softTtlMs;
+        }
+
+        long effectiveSoftTtlMs() {
+            return softTtlMs > 0 && softTtlMs < ttlMs ? softTtlMs : 0;
+        }
+    }
+
+    /**
+     * Derives the next state from the current one; may run more than once under contention
+     */
+    private interface Update {
+        State apply(State current);
+    }
+
+    private final AtomicReference<State> state =
+        new AtomicReference<>(new State(null, null, DEFAULT_TTL_MS, 0));
+
+    /**
+     * Set the time-to-live for cached results. A value of 0 or less disables caching.
+     */
+    void setTtlMs(long ttlMs) {
+        update(current -> new State(current.latest, current.restored, ttlMs, current.softTtlMs));
+    }
+
+    long getTtlMs() {
+        return state.get().ttlMs;
+    }
+
+    /**
+     * Set the age after which a cached result should be refreshed in the background.
+     * A value of 0 or less, or one not below the TTL, disables background revalidation.
+     */
+    void setSoftTtlMs(long softTtlMs) {
+        update(current -> new State(current.latest, current.restored, current.ttlMs, softTtlMs));
+    }
+
+    long getSoftTtlMs() {
+        return state.get().effectiveSoftTtlMs();
+    }
+
+    /**
+     * Whether a snapshot is past the soft TTL and due for a background refresh
+     */
+    boolean needsRevalidation(AgeSignalsSnapshot snapshot, long nowMillis) {
+        long soft = getSoftTtlMs();
+        return soft > 0 && nowMillis - snapshot.fetchedAtMillis >= soft;
+    }
+
+    /**
+     * Return the cached snapshot if it is still within the TTL, otherwise null
+     */
+    AgeSignalsSnapshot getFresh(long nowMillis) {
+        State current = state.get();
+        if (current.latest == null || current.ttlMs <= 0) {
+            return null;
+        }
+        long age = nowMillis - current.latest.fetchedAtMillis;
+        // A negative age means the wall clock moved backwards; treat the entry as expired
+        if (age < 0 || age >= current.ttlMs) {
+            return null;
+        }
+        return current.latest;
+    }
+
+    /**
+     * Return the snapshot restored from disk, or null once a live result has been fetched
+     */
+    AgeSignalsSnapshot getRestored() {
+        return state.get().restored;
+    }
+
+    /**
+     * Return the most recent snapshot regardless of age: the live entry, else the one restored
+     * from disk, else null
+     */
+    AgeSignalsSnapshot getLastKnown() {
+        State current = state.get();
+        return current.latest != null ? current.latest : current.restored;
+    }
+
+    /**
+     * Store a freshly fetched snapshot, superseding any restored one
+     */
+    void put(AgeSignalsSnapshot snapshot) {
+        update(current -> new State(snapshot, null, current.ttlMs, current.softTtlMs));
+    }
+
+    /**
+     * Offer a snapshot loaded from disk. Ignored if a live or restored result already exists.
+     */
+    void restore(AgeSignalsSnapshot snapshot) {
+        update(current -> current.latest != null || current.restored != null
+            ? current
+            : new State(null, snapshot, current.ttlMs, current.softTtlMs));
+    }
+
+    /**
+     * Drop all cached data so the next call goes to Google Play
+     */
+    void invalidate() {
+        update(current -> new State(null, null, current.ttlMs, current.softTtlMs));
+    }
+
+    private void update(Update update) {
+        while (true) {
+            State current = state.get();
+            State next = update.apply(current);
+            if (next == current || state.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.anthropic.ageverification;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.cordova.PluginResult;
+
+/**
+ * Immutable, pre-serialized error responses for Play Age Signals error codes
+ * Every known code (-1..-9, -100) maps to a PluginResult built once at class load for each attempt
+ * count up to the retry limit (0 for calls the circuit breaker failed fast), so a storm of failures
+ * is answered without allocating. Unknown codes are memoized on first sight, up to a bound, after
+ * which they share a generic payload.
+ */
+final class AgeSignalsErrors {
+
+    // Table slots: -1..-9 map to 0..8, INTERNAL_ERROR (-100) to 9, anything else to UNKNOWN_INDEX
+    static final int INTERNAL_ERROR_CODE = -100;
+    static final int INDEX_COUNT = 11;
+    static final int UNKNOWN_INDEX = INDEX_COUNT - 1;
+
+    private static final int MAX_MEMOIZED_UNKNOWN_CODES = 32;
+    // Attempt counts above this are serialized per call
+    private static final int MAX_TABLE_ATTEMPTS = 8;
+
+    private static final String[] ERROR_CODES = {
+        "api_not_available",        // -1 API_NOT_AVAILABLE
+        "play_store_not_found",     // -2 PLAY_STORE_NOT_FOUND
+        "network_error",            // -3 NETWORK_ERROR
+        "play_services_not_found",  // -4 PLAY_SERVICES_NOT_FOUND
+        "service_binding_failed",   // -5 CANNOT_BIND_TO_SERVICE
+        "play_store_outdated",      // -6 PLAY_STORE_VERSION_OUTDATED
+        "play_services_outdated",   // -7 PLAY_SERVICES_VERSION_OUTDATED
+        "transient_error",          // -8 CLIENT_TRANSIENT_ERROR
+        "app_not_owned",            // -9 APP_NOT_OWNED
+        "internal_error",           // -100 INTERNAL_ERROR
+        "unknown"
+    };
+
+    private static final String[] MESSAGES = {
+        "Play Store app is too old. Please update.",
+        "Google Play Store is not installed.",
+        "No network connection available.",
+        "Google Play Services is not available.",
+        "Failed to bind to the service.",
+        "Google Play Store needs to be updated.",
+        "Google Play Services needs to be updated.",
+        "A temporary error occurred. Please try again.",
+        "App was not installed from Google Play.",
+        "An internal error occurred.",
+        "Unknown error"
+    };
+
+    private static final boolean[] RETRYABLE = {
+        true, true, true, true, true, true, true, true, false, false, false
+    };
+
+    private static final PluginResult[][] RESULTS = new PluginResult[INDEX_COUNT][MAX_TABLE_ATTEMPTS + 1];
+    private static final ConcurrentHashMap<Integer, PluginResult> UNKNOWN_RESULTS = new ConcurrentHashMap<>();
+
+    static {
+        for (int i = 0; i < INDEX_COUNT; i++) {
+            for (int attempts = 0; attempts <= MAX_TABLE_ATTEMPTS; attempts++) {
+                RESULTS[i][attempts] = buildResult(ERROR_CODES[i], MESSAGES[i], RETRYABLE[i], attempts);
+            }
+        }
+    }
+
+    private AgeSignalsErrors() {
+    }
+
+    /**
+     * Table slot for a Play error code; unknown codes share UNKNOWN_INDEX
+     */
+    static int indexOf(int code) {
+        if (code <= -1 && code >= -9) {
+            return -code - 1;
+        }
+        if (code == INTERNAL_ERROR_CODE) {
+            return 9;
+        }
+        return UNKNOWN_INDEX;
+    }
+
+    /**
+     * Cross-platform error code string for a Play error code
+     */
+    static String errorCodeOf(int code) {
+        return ERROR_CODES[indexOf(code)];
+    }
+
+    /**
+     * Cross-platform error code string for a table slot
+     */
+    static String errorCodeAt(int index) {
+        return ERROR_CODES[index];
+    }
+
+    /**
+     * Whether the error is reported to JavaScript as retryable
+     */
+    static boolean isRetryable(int code) {
+        return RETRYABLE[indexOf(code)];
+    }
+
+    /**
+     * The shared, pre-serialized error result for a Play error code
+     * @param code The Play error code
+     * @param attempts Requests sent to Google Play before giving up
+     */
+    static PluginResult resultFor(int code, int attempts) {
+        attempts = Math.max(0, attempts);
+        int index = indexOf(code);
+        if (attempts > MAX_TABLE_ATTEMPTS) {
+            String message = index != UNKNOWN_INDEX ? MESSAGES[index] : "Unknown error: " + code;
+            return buildResult(ERROR_CODES[index], message, RETRYABLE[index], attempts);
+        }
+        if (index != UNKNOWN_INDEX) {
+            return RESULTS[index][attempts];
+        }
+
+        // Unknown codes are never retried, so only first-attempt payloads are memoized
+        if (attempts != 1) {
+            return buildResult(ERROR_CODES[UNKNOWN_INDEX], "Unknown error: " + code, false, attempts);
+        }
+        PluginResult memoized = UNKNOWN_RESULTS.get(code);
+        if (memoized != null) {
+            return memoized;
+        }
+        if (UNKNOWN_RESULTS.size() >= MAX_MEMOIZED_UNKNOWN_CODES) {
+            return RESULTS[UNKNOWN_INDEX][1];
+        }
+        PluginResult created = buildResult(ERROR_CODES[UNKNOWN_INDEX], "Unknown error: " + code, false, 1);
+        PluginResult existing = UNKNOWN_RESULTS.putIfAbsent(code, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * Error result for a failed fetch. Failures that carry no Play error code have a dynamic
+     * message, so these are built per call; they are not on the Play failure path.
+     */
+    static PluginResult resultFor(Exception e, int attempts) {
+        if (e instanceof AgeSignalsProviderException) {
+            return resultFor(((AgeSignalsProviderException) e).getErrorCode(), attempts);
+        }
+        return buildResult(ERROR_CODES[UNKNOWN_INDEX], e.getMessage(), false, Math.max(0, attempts));
+    }
+
+    /**
+     * Error result for a failed fetch that also carries the last-known snapshot as lastKnown, so
+     * callers can decide whether stale data is good enough. Built per call; without a snapshot this
+     * is the shared result from resultFor(e, attempts).
+     */
+    static PluginResult resultFor(Exception e, int attempts, AgeSignalsSnapshot lastKnown) {
+        if (lastKnown == null) {
+            return resultFor(e, attempts);
+        }
+        int index = UNKNOWN_INDEX;
+        String message = e.getMessage();
+        if (e instanceof AgeSignalsProviderException) {
+            int code = ((AgeSignalsProviderException) e).getErrorCode();
+            index = indexOf(code);
+            message = index != UNKNOWN_INDEX ? MESSAGES[index] : "Unknown error: " + code;
+        }
+        JsonResponseWriter writer = JsonResponseWriter.obtain().beginObject();
+        writeError(writer, ERROR_CODES[index], message, RETRYABLE[index], Math.max(0, attempts));
+        writer.name("lastKnown").beginObject();
+        AgeSignalsResponses.writeFullAgeSignalsResult(writer, lastKnown);
+        writer.field("ageMs", lastKnown.ageMs(System.currentTimeMillis()));
+        writer.endObject();
+        return new RawJsonPluginResult(PluginResult.Status.ERROR, writer.endObject().toJson());
+    }
+
+    private static PluginResult buildResult(String errorCode, String message, boolean retryable, int attempts) {
+        JsonResponseWriter writer = JsonResponseWriter.obtain().beginObject();
+        writeError(writer, errorCode, message, retryable, attempts);
+        return new RawJsonPluginResult(PluginResult.Status.ERROR, writer.endObject().toJson());
+    }
+
+    private static void writeError(JsonResponseWriter writer, String errorCode, String message, boolean retryable,
+                                   int attempts) {
+        writer.field("error", errorCode)
+            .field("message", message)
+            .field("retryable", retryable)
+            .field("attempts", attempts);
+    }
+}
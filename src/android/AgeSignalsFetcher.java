@@ -0,0 +1,377 @@
+package com.anthropic.ageverification;
+
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight front end for AgeSignalsProvider.checkAgeSignals
+ * Callers that arrive while a request is already in flight wait on that request instead of
+ * starting their own, and every waiter receives the same shared result. Transient failures are
+ * retried inside the flight, so waiters share one retry sequence rather than each retrying. Every
+ * attempt takes a rate limiter token and passes through the circuit breaker first, and a slow
+ * attempt may be hedged with a second request whose answer is used if it arrives first. Only
+ * requests actually sent are charged to the limiter; callers that join a flight or are answered
+ * from the cache never are.
+ */
+final class AgeSignalsFetcher {
+
+    /**
+     * Where a delivered snapshot came from
+     */
+    enum Origin {
+        /** Fetched from Google Play for this call */
+        PLAY,
+        /** Answered from the in-memory cache within its TTL */
+        CACHE,
+        /**
+         * Last-known-good snapshot restored from disk; a refresh is running in the background.
+         * Only served until a request fails, after which calls wait for Google Play again.
+         */
+        RESTORED
+    }
+
+    /**
+     * Receives the outcome of a fetch
+     * attempts is the number of requests the flight sent to Google Play, or 0 when the call was
+     * answered without one, including failures the circuit breaker returned without a request.
+     */
+    interface Listener {
+        void onSuccess(AgeSignalsSnapshot snapshot, Origin origin, int attempts);
+        void onFailure(Exception e, int attempts);
+    }
+
+    private final AgeSignalsProvider provider;
+    private final AgeSignalsCache cache;
+    // Null when results must not be persisted, as with the fake provider
+    private final AgeSignalsSnapshotStore store;
+    private final AgeVerificationMetrics metrics;
+    private final RetryPolicy retryPolicy;
+    private final CircuitBreaker circuitBreaker;
+    private final HedgePolicy hedgePolicy;
+    private final RateLimiter rateLimiter;
+    // Rate limiter bucket for requests no caller started: prefetch, refreshes and subscriptions
+    private final int backgroundBucket;
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+    // Non-null while a request is in flight
+    private List<Listener> waiters;
+
+    // Set once a request fails; from then on the restored snapshot is no longer an answer by itself,
+    // so a Google Play that keeps failing surfaces its errors instead of hiding behind stale data
+    private volatile boolean restoredExpired;
+
+    private final AtomicLong flightsStarted = new AtomicLong();
+    private final AtomicLong callsCoalesced = new AtomicLong();
+
+    // Set once by prefetch(); times are SystemClock.elapsedRealtime()
+    private volatile long prefetchStartedAt = -1;
+    private volatile long prefetchCompletedAt = -1;
+    private volatile AgeSignalsSnapshot prefetchedSnapshot;
+
+    AgeSignalsFetcher(AgeSignalsProvider provider, AgeSignalsCache cache,
+                      AgeSignalsSnapshotStore store, AgeVerificationMetrics metrics,
+                      RetryPolicy retryPolicy, CircuitBreaker circuitBreaker, HedgePolicy hedgePolicy,
+                      RateLimiter rateLimiter, int backgroundBucket, ScheduledExecutorService scheduler) {
+        this.provider = provider;
+        this.cache = cache;
+        this.store = store;
+        this.metrics = metrics;
+        this.retryPolicy = retryPolicy;
+        this.circuitBreaker = circuitBreaker;
+        this.hedgePolicy = hedgePolicy;
+        this.rateLimiter = rateLimiter;
+        this.backgroundBucket = backgroundBucket;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Deliver the cached snapshot if it is fresh, otherwise join or start a request to Google Play.
+     * On a cold start the snapshot restored from disk is delivered immediately instead, while the
+     * request refreshes it in the background, until the first request fails.
+     * @param bucket Rate limiter bucket charged if this call has to start a request
+     */
+    void fetch(int bucket, Listener listener) {
+        long now = System.currentTimeMillis();
+        AgeSignalsSnapshot cached = cache.getFresh(now);
+        if (cached != null) {
+            listener.onSuccess(cached, Origin.CACHE, 0);
+            // Past the soft TTL: answer now, refresh for the next caller
+            if (cache.needsRevalidation(cached, now)) {
+                refresh();
+            }
+            return;
+        }
+
+        AgeSignalsSnapshot restored = restoredExpired ? null : cache.getRestored();
+        boolean start = false;
+        synchronized (lock) {
+            // Re-check under the lock in case a flight completed since the first check
+            cached = cache.getFresh(System.currentTimeMillis());
+            if (cached == null) {
+                if (waiters == null) {
+                    waiters = new ArrayList<>();
+                    start = true;
+                } else if (restored == null) {
+                    callsCoalesced.incrementAndGet();
+                }
+                if (restored == null) {
+                    waiters.add(listener);
+                }
+            }
+        }
+
+        if (cached != null) {
+            listener.onSuccess(cached, Origin.CACHE, 0);
+            return;
+        }
+        if (restored != null) {
+            listener.onSuccess(restored, Origin.RESTORED, 0);
+        }
+        if (start) {
+            startRequest(bucket, false);
+        }
+    }
+
+    /**
+     * Like fetch(int, Listener), charging the background bucket if a request has to start
+     */
+    void fetch(Listener listener) {
+        fetch(backgroundBucket, listener);
+    }
+
+    /**
+     * Join the request in flight, or start one, without answering from the cache or the restored
+     * snapshot. For callers that need Google Play's current answer, such as the subscription loop.
+     */
+    void fetchFromPlay(Listener listener) {
+        boolean start = false;
+        synchronized (lock) {
+            if (waiters == null) {
+                waiters = new ArrayList<>();
+                start = true;
+            } else {
+                callsCoalesced.incrementAndGet();
+            }
+            waiters.add(listener);
+        }
+        if (start) {
+            startRequest(backgroundBucket, false);
+        }
+    }
+
+    /**
+     * Start a request ahead of any caller so the first real call can attach to it.
+     * Does nothing if a request is already in flight.
+     */
+    void prefetch() {
+        prefetchStartedAt = SystemClock.elapsedRealtime();
+        startIfIdle(true);
+    }
+
+    /**
+     * Start a background request to refresh the cache, unless one is already in flight
+     */
+    void refresh() {
+        startIfIdle(false);
+    }
+
+    private void startIfIdle(boolean isPrefetch) {
+        synchronized (lock) {
+            if (waiters != null) {
+                return;
+            }
+            waiters = new ArrayList<>();
+        }
+        startRequest(backgroundBucket, isPrefetch);
+    }
+
+    /**
+     * How much waiting the prefetch saved a call that received the given snapshot
+     * @param snapshot The snapshot delivered to the call
+     * @param requestedAt When the call arrived, in SystemClock.elapsedRealtime() time
+     * @return Milliseconds the prefetch ran before the call arrived (capped at the prefetch
+     *         duration), or -1 if the snapshot did not come from the prefetch
+     */
+    long getPrefetchLeadMs(AgeSignalsSnapshot snapshot, long requestedAt) {
+        if (snapshot == null || snapshot != prefetchedSnapshot) {
+            return -1;
+        }
+        return Math.max(0, Math.min(requestedAt, prefetchCompletedAt) - prefetchStartedAt);
+    }
+
+    /**
+     * Number of requests actually sent to Google Play
+     */
+    long getFlightsStarted() {
+        return flightsStarted.get();
+    }
+
+    /**
+     * Number of calls that joined a request already in flight
+     */
+    long getCallsCoalesced() {
+        return callsCoalesced.get();
+    }
+
+    private void startRequest(int bucket, boolean isPrefetch) {
+        flightsStarted.incrementAndGet();
+        retryPolicy.onRequestStarted();
+        // checkAgeSignals is already asynchronous, so start it on the calling thread
+        attempt(1, bucket, isPrefetch);
+    }
+
+    private void attempt(int attempt, int bucket, boolean isPrefetch) {
+        // Before the breaker, so a refused request never takes a half-open breaker's only probe
+        long retryAfterMs = rateLimiter.tryAcquire(bucket);
+        if (retryAfterMs > 0) {
+            complete(null, new RateLimitedException(retryAfterMs), attempt - 1);
+            return;
+        }
+        Exception rejection = circuitBreaker.acquire();
+        if (rejection != null) {
+            complete(null, rejection, attempt - 1);
+            return;
+        }
+
+        // Shared by the request and its hedge: the first success wins, and a failure only counts
+        // once neither request is still outstanding
+        AtomicBoolean settled = new AtomicBoolean();
+        AtomicInteger outstanding = new AtomicInteger(1);
+        hedgePolicy.onRequestStarted();
+        long hedgeDelayMs = hedgePolicy.getHedgeDelayMs();
+        ScheduledFuture<?> hedge = null;
+        if (hedgeDelayMs >= 0) {
+            hedge = scheduler.schedule(() -> {
+                // Only hedge while every breaker is closed: a half-open breaker allows a single
+                // probe, and the request being hedged already is that probe
+                if (settled.get() || !circuitBreaker.isClosed() || rateLimiter.tryAcquire(bucket) > 0
+                        || !hedgePolicy.tryAcquire()) {
+                    return;
+                }
+                outstanding.incrementAndGet();
+                send(attempt, bucket, isPrefetch, settled, outstanding, null, true);
+            }, hedgeDelayMs, TimeUnit.MILLISECONDS);
+        }
+        send(attempt, bucket, isPrefetch, settled, outstanding, hedge, false);
+    }
+
+    private void send(int attempt, int bucket, boolean isPrefetch, AtomicBoolean settled,
+                      AtomicInteger outstanding, ScheduledFuture<?> hedge, boolean isHedge) {
+        long sentAt = SystemClock.elapsedRealtime();
+        int traceCookie = AgeVerificationTrace.beginAsync(AgeVerificationTrace.PLAY_TASK);
+        AgeSignalsProvider.Callback callback = new AgeSignalsProvider.Callback() {
+            @Override
+            public void onSuccess(AgeSignalsSnapshot snapshot) {
+                AgeVerificationTrace.endAsync(AgeVerificationTrace.PLAY_TASK, traceCookie);
+                hedgePolicy.recordLatency(SystemClock.elapsedRealtime() - sentAt);
+                long startedAt = SystemClock.elapsedRealtimeNanos();
+                boolean traced = AgeVerificationTrace.begin(AgeVerificationTrace.CALLBACK);
+                try {
+                    handleSuccess(snapshot, attempt, isPrefetch, settled, hedge, isHedge);
+                } finally {
+                    AgeVerificationTrace.end(traced);
+                    recordCallback(startedAt);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                AgeVerificationTrace.endAsync(AgeVerificationTrace.PLAY_TASK, traceCookie);
+                if (outstanding.decrementAndGet() > 0 || !settled.compareAndSet(false, true)) {
+                    return;
+                }
+                if (hedge != null) {
+                    hedge.cancel(false);
+                }
+                long startedAt = SystemClock.elapsedRealtimeNanos();
+                boolean traced = AgeVerificationTrace.begin(AgeVerificationTrace.CALLBACK);
+                try {
+                    retryOrFail(e, attempt, bucket, isPrefetch);
+                } finally {
+                    AgeVerificationTrace.end(traced);
+                    recordCallback(startedAt);
+                }
+            }
+        };
+
+        try {
+            provider.checkAgeSignals(callback);
+        } catch (Exception e) {
+            callback.onFailure(e);
+        }
+    }
+
+    private void handleSuccess(AgeSignalsSnapshot snapshot, int attempt, boolean isPrefetch,
+                               AtomicBoolean settled, ScheduledFuture<?> hedge, boolean isHedge) {
+        if (!settled.compareAndSet(false, true)) {
+            return;
+        }
+        if (hedge != null) {
+            hedge.cancel(false);
+        }
+        if (isHedge) {
+            hedgePolicy.onHedgeWon();
+        }
+        if (isPrefetch) {
+            // Publish before caching so cache hits can attribute the lead time
+            prefetchCompletedAt = SystemClock.elapsedRealtime();
+            prefetchedSnapshot = snapshot;
+        }
+        circuitBreaker.onSuccess();
+        cache.put(snapshot);
+        if (store != null) {
+            store.save(snapshot);
+        }
+        complete(snapshot, null, attempt);
+    }
+
+    /**
+     * Record how long result processing took, and whether it ran on the main thread
+     */
+    private void recordCallback(long startedAtNanos) {
+        metrics.recordCallback((SystemClock.elapsedRealtimeNanos() - startedAtNanos) / 1000000,
+            Looper.myLooper() == Looper.getMainLooper());
+    }
+
+    private void retryOrFail(Exception e, int attempt, int bucket, boolean isPrefetch) {
+        circuitBreaker.onFailure(e);
+        long delayMs = retryPolicy.nextRetryDelayMs(e, attempt);
+        if (delayMs < 0) {
+            complete(null, e, attempt);
+            return;
+        }
+        scheduler.schedule(() -> attempt(attempt + 1, bucket, isPrefetch), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void complete(AgeSignalsSnapshot snapshot, Exception error, int attempts) {
+        // A refused request says nothing about Google Play's health
+        if (error != null && !(error instanceof RateLimitedException)) {
+            restoredExpired = true;
+        }
+        List<Listener> done;
+        synchronized (lock) {
+            done = waiters;
+            waiters = null;
+        }
+        if (done == null) {
+            return;
+        }
+        for (Listener listener : done) {
+            if (error == null) {
+                listener.onSuccess(snapshot, Origin.PLAY, attempts);
+            } else {
+                listener.onFailure(error, attempts);
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.anthropic.ageverification;
+
+/**
+ * Source of age signals for the plugin
+ * Production uses PlayAgeSignalsProvider; FakeAgeSignalsProvider runs the same request pipeline
+ * without Google Play for load testing and benchmarks.
+ */
+interface AgeSignalsProvider {
+
+    /**
+     * Receives the outcome of a single request. Failures from the provider carry the Play error
+     * code in an AgeSignalsProviderException.
+     */
+    interface Callback {
+        void onSuccess(AgeSignalsSnapshot snapshot);
+        void onFailure(Exception e);
+    }
+
+    /**
+     * Start one age signals request; the callback may run on any thread
+     */
+    void checkAgeSignals(Callback callback);
+}
@@ -0,0 +1,20 @@
+package com.anthropic.ageverification;
+
+/**
+ * Provider failure carrying a Play Age Signals error code (-1..-9, -100)
+ */
+final class AgeSignalsProviderException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int errorCode;
+
+    AgeSignalsProviderException(int errorCode, String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = errorCode;
+    }
+
+    int getErrorCode() {
+        return errorCode;
+    }
+}
@@ -0,0 +1,107 @@
+package com.anthropic.ageverification;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the cached age signals fresh in the background while the app is in the foreground
+ * Whenever the cached snapshot reaches the soft TTL, a refresh goes through the fetcher's normal
+ * single-flight request, so callers keep getting instant answers from the cache. Ticks are
+ * jittered so many devices don't refresh in lockstep, and stop while the app is paused.
+ */
+final class AgeSignalsRefreshScheduler {
+
+    // Each delay is scaled by a random factor in [1 - JITTER, 1 + JITTER]
+    private static final double JITTER = 0.1;
+    private static final long MIN_DELAY_MS = 1000;
+
+    private final BackgroundInitializer<AgeSignalsFetcher> fetcherInitializer;
+    private final AgeSignalsCache cache;
+    private final ScheduledExecutorService scheduler;
+    private final Executor background;
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private ScheduledFuture<?> next;
+    private boolean running;
+    // Bumped on every resume and pause so a tick already running doesn't reschedule a stale loop
+    private int generation;
+
+    AgeSignalsRefreshScheduler(BackgroundInitializer<AgeSignalsFetcher> fetcherInitializer,
+                               AgeSignalsCache cache, ScheduledExecutorService scheduler,
+                               Executor background) {
+        this.fetcherInitializer = fetcherInitializer;
+        this.cache = cache;
+        this.scheduler = scheduler;
+        this.background = background;
+    }
+
+    /**
+     * Start or resume refreshing; refreshes right away if the snapshot is already due.
+     * Does nothing when no soft TTL is configured.
+     */
+    void resume() {
+        if (cache.getSoftTtlMs() <= 0) {
+            return;
+        }
+        synchronized (lock) {
+            running = true;
+            cancelNext();
+            int current = ++generation;
+            next = scheduler.schedule(() -> tick(current), 0, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Stop refreshing until the next resume
+     */
+    void pause() {
+        synchronized (lock) {
+            running = false;
+            generation++;
+            cancelNext();
+        }
+    }
+
+    private void tick(int tickGeneration) {
+        long softTtlMs = cache.getSoftTtlMs();
+        BackgroundInitializer.Status<AgeSignalsFetcher> init = fetcherInitializer.getStatus();
+        if (softTtlMs <= 0 || init.state == BackgroundInitializer.State.FAILED) {
+            return;
+        }
+
+        long remainingMs = softTtlMs;
+        AgeSignalsSnapshot snapshot = cache.getLastKnown();
+        long now = System.currentTimeMillis();
+        if (snapshot == null || cache.needsRevalidation(snapshot, now)) {
+            AgeSignalsFetcher fetcher = init.value;
+            if (fetcher != null) {
+                // Skipped if the background lane is saturated; the next tick tries again
+                background.execute(fetcher::refresh);
+            } else {
+                // Still initializing; check again shortly
+                remainingMs = MIN_DELAY_MS;
+            }
+        } else {
+            remainingMs = softTtlMs - snapshot.ageMs(now);
+        }
+
+        double jitter = 1 + ThreadLocalRandom.current().nextDouble(-JITTER, JITTER);
+        long delayMs = Math.max(MIN_DELAY_MS, (long) (remainingMs * jitter));
+        synchronized (lock) {
+            if (running && generation == tickGeneration) {
+                next = scheduler.schedule(() -> tick(tickGeneration), delayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void cancelNext() {
+        if (next != null) {
+            next.cancel(false);
+            next = null;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.anthropic.ageverification;
+
+import com.anthropic.ageverification.AgeSignalsSnapshot.UserStatus;
+
+/**
+ * Builds the responses sent to JavaScript from age signals snapshots
+ * Depends only on the plugin's own value types, so the per-call processing can be
+ * exercised and measured on a plain JVM without Cordova, Android or the Play library.
+ *
+ * Success responses are streamed into a JsonResponseWriter rather than built as JSONObject trees.
+ * Each write method emits fields into an object the caller has already opened.
+ */
+final class AgeSignalsResponses {
+
+    // Per-threshold outcomes for isUserAboveAges
+    static final int GATE_ABOVE = 1;
+    static final int GATE_BELOW = 0;
+    static final int GATE_INDETERMINATE = -1;
+
+    private static final int[] DEFAULT_AGE_GATES = {13, 16, 18};
+
+    private AgeSignalsResponses() {
+    }
+
+    /**
+     * Write the fields of a requestAgeRange response, compatible with the cross-platform API
+     * @param writer Writer positioned inside the response object
+     * @param snapshot The age signals from Google Play
+     * @param ageGates The age gates used for the request (for reference/logging)
+     */
+    static void writeAgeRangeResult(JsonResponseWriter writer, AgeSignalsSnapshot snapshot, int[] ageGates) {
+        UserStatus status = snapshot.userStatus;
+
+        // Map status to cross-platform format
+        switch (status) {
+            case UNKNOWN:
+                writer.field("status", "unknown").field("shared", false);
+                break;
+            case SUPERVISED_APPROVAL_DENIED:
+                writer.field("status", "declined").field("shared", false);
+                break;
+            case SUPERVISED_APPROVAL_PENDING:
+                writer.field("status", "pending").field("shared", false);
+                break;
+            default:
+                writer.field("status", "shared").field("shared", true);
+                break;
+        }
+
+        // Add age bounds
+        writer.field("lowerBound", snapshot.ageLower);
+        writer.field("upperBound", snapshot.ageUpper);
+
+        // Include the age gates that were requested (for debugging/verification)
+        writer.name("requestedAgeGates").beginArray();
+        for (int gate : ageGates) {
+            writer.value(gate);
+        }
+        writer.endArray();
+
+        // Map verification status to source-like field
+        switch (status) {
+            case VERIFIED:
+                writer.field("source", "verified").field("userStatus", "verified");
+                break;
+            case SUPERVISED:
+                writer.field("source", "supervised").field("userStatus", "supervised");
+                break;
+            case SUPERVISED_APPROVAL_PENDING:
+                writer.field("source", "supervised").field("userStatus", "supervised_approval_pending");
+                break;
+            case SUPERVISED_APPROVAL_DENIED:
+                writer.field("source", "supervised").field("userStatus", "supervised_approval_denied");
+                break;
+            default:
+                writer.name("source").nullValue().field("userStatus", "unknown");
+                break;
+        }
+
+        // Android doesn't have parental controls in the same way, use empty array for compatibility
+        writer.name("parentalControls").beginArray().endArray();
+    }
+
+    /**
+     * Write the fields of a checkAgeSignals response, including the Android-specific fields
+     * @param writer Writer positioned inside the response object
+     * @param snapshot The age signals from Google Play
+     */
+    static void writeFullAgeSignalsResult(JsonResponseWriter writer, AgeSignalsSnapshot snapshot) {
+        // Use default age gates for checkAgeSignals
+        writeAgeRangeResult(writer, snapshot, DEFAULT_AGE_GATES);
+        // Add Android-specific fields
+        writer.field("installId", snapshot.installId);
+        writer.field("mostRecentApprovalDate", snapshot.mostRecentApprovalDate);
+    }
+
+    /**
+     * Write the fields of an isUserAboveAge response
+     * @param writer Writer positioned inside the response object
+     * @param snapshot The age signals from Google Play
+     * @param minimumAge The minimum age being checked
+     */
+    static void writeAgeCheckResult(JsonResponseWriter writer, AgeSignalsSnapshot snapshot, int minimumAge) {
+        writer.field("minimumAge", minimumAge);
+
+        // Always include bounds for consistent response shape
+        writer.field("lowerBound", snapshot.ageLower);
+        writer.field("upperBound", snapshot.ageUpper);
+
+        writer.field("isAboveAge", evaluateAgeGate(snapshot, minimumAge) == GATE_ABOVE);
+        writeStatusFlags(writer, snapshot);
+    }
+
+    /**
+     * Write the fields of an isUserAboveAges response
+     * @param writer Writer positioned inside the response object
+     * @param snapshot The age signals from Google Play
+     * @param minimumAges The thresholds being checked; results are returned in the same order
+     */
+    static void writeAgeChecksResult(JsonResponseWriter writer, AgeSignalsSnapshot snapshot, int[] minimumAges) {
+        writer.name("minimumAges").beginArray();
+        for (int minimumAge : minimumAges) {
+            writer.value(minimumAge);
+        }
+        writer.endArray();
+
+        writer.name("results").beginArray();
+        for (int minimumAge : minimumAges) {
+            writer.value(evaluateAgeGate(snapshot, minimumAge));
+        }
+        writer.endArray();
+
+        writer.field("lowerBound", snapshot.ageLower);
+        writer.field("upperBound", snapshot.ageUpper);
+        writeStatusFlags(writer, snapshot);
+    }
+
+    /**
+     * Write the JSON fields of a filterByMinimumAge response
+     * @param writer Writer positioned inside the response object
+     * @param snapshot The age signals from Google Play
+     * @param itemCount Number of items that were filtered
+     */
+    static void writeFilterResult(JsonResponseWriter writer, AgeSignalsSnapshot snapshot, int itemCount) {
+        writer.field("itemCount", itemCount);
+        writer.field("lowerBound", snapshot.ageLower);
+        writer.field("upperBound", snapshot.ageUpper);
+        writeStatusFlags(writer, snapshot);
+    }
+
+    private static void writeStatusFlags(JsonResponseWriter writer, AgeSignalsSnapshot snapshot) {
+        writer.field("declined", snapshot.userStatus == UserStatus.SUPERVISED_APPROVAL_DENIED);
+        writer.field("unknown", snapshot.userStatus == UserStatus.UNKNOWN);
+    }
+
+    /**
+     * Evaluate every item against the snapshot in a single pass
+     * Items are allowed when evaluateAgeGate says ABOVE, which reduces to a single comparison
+     * against the highest allowed age; unrestricted (0) items are always allowed.
+     */
+    static byte[] filterItems(AgeSignalsSnapshot snapshot, byte[] itemMinimumAges) {
+        int maxAllowedAge = 0;
+        if (snapshot.ageLower != null && evaluateAgeGate(snapshot, snapshot.ageLower) == GATE_ABOVE) {
+            maxAllowedAge = snapshot.ageLower;
+        }
+
+        byte[] bitset = new byte[(itemMinimumAges.length + 7) / 8];
+        for (int i = 0; i < itemMinimumAges.length; i++) {
+            if ((itemMinimumAges[i] & 0xFF) <= maxAllowedAge) {
+                bitset[i >> 3] |= (byte) (1 << (i & 7));
+            }
+        }
+        return bitset;
+    }
+
+    /**
+     * Decide whether the user is at or above an age threshold
+     * Unknown status is indeterminate; a denied approval or a lower bound below the threshold
+     * counts as below, matching isAboveAge: false.
+     */
+    static int evaluateAgeGate(AgeSignalsSnapshot snapshot, int minimumAge) {
+        UserStatus status = snapshot.userStatus;
+        if (status == UserStatus.UNKNOWN) {
+            return GATE_INDETERMINATE;
+        }
+        if (status == UserStatus.SUPERVISED_APPROVAL_DENIED) {
+            return GATE_BELOW;
+        }
+        return snapshot.ageLower != null && snapshot.ageLower >= minimumAge ? GATE_ABOVE : GATE_BELOW;
+    }
+}
@@ -0,0 +1,55 @@
+package com.anthropic.ageverification;
+
+import java.util.Objects;
+
+/**
+ * Immutable age signals result stamped with the wall-clock time it was fetched
+ * Holds only the fields the plugin reports, so it can be cached, persisted and produced by any
+ * AgeSignalsProvider independently of the Play library's result type.
+ */
+final class AgeSignalsSnapshot {
+
+    /**
+     * Mirrors AgeSignalsVerificationStatus; a missing Play status maps to UNKNOWN
+     */
+    enum UserStatus {
+        VERIFIED,
+        SUPERVISED,
+        SUPERVISED_APPROVAL_PENDING,
+        SUPERVISED_APPROVAL_DENIED,
+        UNKNOWN
+    }
+
+    final UserStatus userStatus;
+    final Integer ageLower;
+    final Integer ageUpper;
+    final String installId;
+    final String mostRecentApprovalDate;
+    final long fetchedAtMillis;
+
+    AgeSignalsSnapshot(UserStatus userStatus, Integer ageLower, Integer ageUpper,
+                       String installId, String mostRecentApprovalDate, long fetchedAtMillis) {
+        this.userStatus = userStatus != null ? userStatus : UserStatus.UNKNOWN;
+        this.ageLower = ageLower;
+        this.ageUpper = ageUpper;
+        this.installId = installId;
+        this.mostRecentApprovalDate = mostRecentApprovalDate;
+        this.fetchedAtMillis = fetchedAtMillis;
+    }
+
+    long ageMs(long nowMillis) {
+        return Math.max(0, nowMillis - fetchedAtMillis);
+    }
+
+    /**
+     * Whether another snapshot reports the same status, age bounds and approval date, ignoring
+     * when each was fetched
+     */
+    boolean hasSameSignals(AgeSignalsSnapshot other) {
+        return other != null
+            && userStatus == other.userStatus
+            && Objects.equals(ageLower, other.ageLower)
+            && Objects.equals(ageUpper, other.ageUpper)
+            && Objects.equals(mostRecentApprovalDate, other.mostRecentApprovalDate);
+    }
+}
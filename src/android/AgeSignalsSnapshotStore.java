@@ -0,0 +1,171 @@
+package com.anthropic.ageverification;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Persists the last-known-good age signals snapshot to app-private storage
+ * All disk access happens on a dedicated background thread; callers never block on I/O. There is one
+ * store per process, like the cache, so plugin instances share the thread and never race on the file.
+ */
+final class AgeSignalsSnapshotStore {
+
+    private static final String TAG = "AgeVerificationAndroid";
+    private static final String FILE_NAME = "age_signals_snapshot.bin";
+    private static final int FORMAT_VERSION = 1;
+    private static final int NO_VALUE = -1;
+
+    /**
+     * Receives the snapshot read from disk, or null if none was usable
+     */
+    interface LoadListener {
+        void onLoaded(AgeSignalsSnapshot snapshot);
+    }
+
+    private final Context context;
+    // Created lazily on the disk thread since resolving the files directory may touch disk
+    private AtomicFile file;
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "AgeVerification-snapshot");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private static AgeSignalsSnapshotStore instance;
+
+    private AgeSignalsSnapshotStore(Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    /**
+     * The process-wide store, created on first use
+     */
+    static synchronized AgeSignalsSnapshotStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new AgeSignalsSnapshotStore(context);
+        }
+        return instance;
+    }
+
+    /**
+     * Read the persisted snapshot in the background
+     * @param maxAgeMs Snapshots older than this are discarded
+     */
+    void load(long maxAgeMs, LoadListener listener) {
+        diskExecutor.execute(() -> {
+            AgeSignalsSnapshot snapshot = read();
+            if (snapshot != null && snapshot.ageMs(System.currentTimeMillis()) > maxAgeMs) {
+                snapshot = null;
+            }
+            listener.onLoaded(snapshot);
+        });
+    }
+
+    /**
+     * Write the snapshot in the background, replacing any previous one
+     */
+    void save(AgeSignalsSnapshot snapshot) {
+        diskExecutor.execute(() -> write(snapshot));
+    }
+
+    /**
+     * Run a task on the disk thread once the loads, saves and clears queued so far have finished
+     */
+    void afterPendingWork(Runnable task) {
+        diskExecutor.execute(task);
+    }
+
+    /**
+     * Delete the persisted snapshot in the background
+     */
+    void clear() {
+        diskExecutor.execute(() -> file().delete());
+    }
+
+    private AtomicFile file() {
+        if (file == null) {
+            file = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+        }
+        return file;
+    }
+
+    private AgeSignalsSnapshot read() {
+        try (DataInputStream in = new DataInputStream(file().openRead())) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            String statusName = readNullableString(in);
+            AgeSignalsSnapshot.UserStatus status = AgeSignalsSnapshot.UserStatus.UNKNOWN;
+            if (statusName != null) {
+                try {
+                    status = AgeSignalsSnapshot.UserStatus.valueOf(statusName);
+                } catch (IllegalArgumentException e) {
+                    // Written by a different plugin version; report as unknown
+                    status = AgeSignalsSnapshot.UserStatus.UNKNOWN;
+                }
+            }
+            int ageLower = in.readInt();
+            int ageUpper = in.readInt();
+            String installId = readNullableString(in);
+            String mostRecentApprovalDate = readNullableString(in);
+            long fetchedAtMillis = in.readLong();
+
+            return new AgeSignalsSnapshot(
+                status,
+                ageLower != NO_VALUE ? ageLower : null,
+                ageUpper != NO_VALUE ? ageUpper : null,
+                installId,
+                mostRecentApprovalDate,
+                fetchedAtMillis);
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            Log.w(TAG, "Discarding unreadable age signals snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void write(AgeSignalsSnapshot snapshot) {
+        FileOutputStream stream = null;
+        try {
+            stream = file().startWrite();
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(FORMAT_VERSION);
+            writeNullableString(out, snapshot.userStatus.name());
+            out.writeInt(snapshot.ageLower != null ? snapshot.ageLower : NO_VALUE);
+            out.writeInt(snapshot.ageUpper != null ? snapshot.ageUpper : NO_VALUE);
+            writeNullableString(out, snapshot.installId);
+            writeNullableString(out, snapshot.mostRecentApprovalDate);
+            out.writeLong(snapshot.fetchedAtMillis);
+            out.flush();
+            file().finishWrite(stream);
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to persist age signals snapshot: " + e.getMessage());
+            if (stream != null) {
+                file().failWrite(stream);
+            }
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.anthropic.ageverification;
+
+import android.util.Log;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cordova.CallbackContext;
+import org.apache.cordova.PluginResult;
+
+/**
+ * Streams age signal changes to subscribed JavaScript callbacks
+ * A single refresh loop runs while anyone is subscribed and serves all subscribers. An event is
+ * sent only when the status, age bounds or approval date differ from the last one sent, so
+ * subscribers never have to poll for approval changes.
+ */
+final class AgeSignalsSubscriptions {
+
+    private static final String TAG = "AgeVerificationAndroid";
+
+    static final int DEFAULT_INTERVAL_MS = 60 * 1000;
+    private static final int MIN_INTERVAL_MS = 1000;
+
+    private final BackgroundInitializer<AgeSignalsFetcher> fetcherInitializer;
+    private final ScheduledExecutorService scheduler;
+    private final Executor background;
+    private final Map<String, CallbackContext> subscribers = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private ScheduledFuture<?> loop;
+    private AgeSignalsSnapshot lastPublished;
+
+    private volatile long intervalMs = DEFAULT_INTERVAL_MS;
+
+    AgeSignalsSubscriptions(BackgroundInitializer<AgeSignalsFetcher> fetcherInitializer,
+                            ScheduledExecutorService scheduler, Executor background) {
+        this.fetcherInitializer = fetcherInitializer;
+        this.scheduler = scheduler;
+        this.background = background;
+    }
+
+    void setIntervalMs(long intervalMs) {
+        this.intervalMs = Math.max(MIN_INTERVAL_MS, intervalMs);
+    }
+
+    /**
+     * Add a subscriber. It immediately receives the last published snapshot, if any, and every
+     * change after that.
+     * @return false if the id is already subscribed
+     */
+    boolean subscribe(String subscriptionId, CallbackContext callbackContext) {
+        // Under the lock so a concurrent publish can't deliver the same snapshot twice
+        synchronized (lock) {
+            if (subscribers.putIfAbsent(subscriptionId, callbackContext) != null) {
+                return false;
+            }
+            if (loop == null) {
+                // The first subscriber may be answered from the cache; every tick after that asks Play
+                background.execute(() -> refresh(false));
+                // The scheduler only times the loop; a refresh skipped on a saturated lane waits for the next one
+                loop = scheduler.scheduleWithFixedDelay(() -> background.execute(() -> refresh(true)),
+                    intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+            }
+            if (lastPublished != null) {
+                callbackContext.sendPluginResult(eventFor(lastPublished));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove a subscriber and release its JavaScript callback
+     * @return false if the id was not subscribed
+     */
+    boolean unsubscribe(String subscriptionId) {
+        CallbackContext callbackContext = subscribers.remove(subscriptionId);
+        if (callbackContext == null) {
+            return false;
+        }
+        // NO_RESULT without keepCallback lets cordova.js drop the callback without invoking it
+        callbackContext.sendPluginResult(new PluginResult(PluginResult.Status.NO_RESULT));
+        stopIfIdle();
+        return true;
+    }
+
+    /**
+     * Remove every subscriber without notifying them, for when the WebView is going away
+     */
+    void clear() {
+        subscribers.clear();
+        stopIfIdle();
+    }
+
+    boolean hasSubscribers() {
+        return !subscribers.isEmpty();
+    }
+
+    /**
+     * Offer a snapshot obtained by any call; subscribers are notified if the signals changed
+     */
+    void publish(AgeSignalsSnapshot snapshot) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        synchronized (lock) {
+            if (snapshot.hasSameSignals(lastPublished)) {
+                return;
+            }
+            lastPublished = snapshot;
+
+            PluginResult event = eventFor(snapshot);
+            for (CallbackContext callbackContext : subscribers.values()) {
+                callbackContext.sendPluginResult(event);
+            }
+        }
+    }
+
+    /**
+     * Fetch the current signals and publish them if they changed
+     * @param bypassCache Ask Google Play even if the cache is fresh; within its TTL the cache
+     *                    would otherwise answer every tick without noticing a change
+     */
+    private void refresh(boolean bypassCache) {
+        fetcherInitializer.whenReady(new BackgroundInitializer.Callback<AgeSignalsFetcher>() {
+            @Override
+            public void onReady(AgeSignalsFetcher fetcher) {
+                AgeSignalsFetcher.Listener listener = new AgeSignalsFetcher.Listener() {
+                    @Override
+                    public void onSuccess(AgeSignalsSnapshot snapshot, AgeSignalsFetcher.Origin origin,
+                                          int attempts) {
+                        publish(snapshot);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e, int attempts) {
+                        // Subscribers only hear about changes; the next tick tries again
+                        Log.w(TAG, "Subscription refresh failed: " + e.getMessage());
+                    }
+                };
+                if (bypassCache) {
+                    fetcher.fetchFromPlay(listener);
+                } else {
+                    fetcher.fetch(listener);
+                }
+            }
+
+            @Override
+            public void onFailed(Exception error) {
+                // subscribe already reports an unavailable API; nothing to refresh
+            }
+        });
+    }
+
+    private void stopIfIdle() {
+        synchronized (lock) {
+            if (subscribers.isEmpty() && loop != null) {
+                loop.cancel(false);
+                loop = null;
+                lastPublished = null;
+            }
+        }
+    }
+
+    private static PluginResult eventFor(AgeSignalsSnapshot snapshot) {
+        JsonResponseWriter writer = JsonResponseWriter.obtain().beginObject();
+        AgeSignalsResponses.writeFullAgeSignalsResult(writer, snapshot);
+        writer.field("ageMs", snapshot.ageMs(System.currentTimeMillis()));
+        PluginResult event = new RawJsonPluginResult(PluginResult.Status.OK, writer.endObject().toJson());
+        event.setKeepCallback(true);
+        return event;
+    }
+}
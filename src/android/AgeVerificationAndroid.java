@@ -1,9 +1,18 @@
 package com.anthropic.ageverification;
 
 import android.os.Build;
+import android.os.SystemClock;
 import android.util.Log;
+import android.view.View;
+import android.webkit.JavascriptInterface;
+import android.webkit.WebView;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.cordova.CallbackContext;
+import org.apache.cordova.CordovaArgs;
 import org.apache.cordova.CordovaPlugin;
 import org.apache.cordova.PluginResult;
 import org.json.JSONArray;
@@ -12,10 +21,6 @@ import org.json.JSONObject;
 
 import com.google.android.play.core.agesignals.AgeSignalsManager;
 import com.google.android.play.core.agesignals.AgeSignalsManagerFactory;
-import com.google.android.play.core.agesignals.AgeSignalsRequest;
-import com.google.android.play.core.agesignals.AgeSignalsResult;
-import com.google.android.play.core.agesignals.AgeSignalsVerificationStatus;
-import com.google.android.play.core.agesignals.AgeSignalsException;
 
 /**
  * Android implementation of Age Verification using Google Play Age Signals API
@@ -25,25 +30,297 @@ public class AgeVerificationAndroid extends CordovaPlugin {
     private static final String TAG = "AgeVerificationAndroid";
     private static final int MIN_AGE = 1;
     private static final int MAX_AGE = 150;
+    private static final String PREF_CACHE_TTL_MS = "AgeVerificationCacheTtlMs";
+    private static final String PREF_CACHE_SOFT_TTL_MS = "AgeVerificationCacheSoftTtlMs";
+    private static final String PREF_SNAPSHOT_MAX_AGE_MS = "AgeVerificationSnapshotMaxAgeMs";
+    private static final int DEFAULT_SNAPSHOT_MAX_AGE_MS = 7 * 24 * 60 * 60 * 1000;
+    private static final String PREF_PREFETCH = "AgeVerificationPrefetch";
+    private static final String PREF_PROVIDER = "AgeVerificationProvider";
+    private static final String PREF_RETRY_MAX_ATTEMPTS = "AgeVerificationRetryMaxAttempts";
+    private static final String PREF_RETRY_BASE_DELAY_MS = "AgeVerificationRetryBaseDelayMs";
+    private static final String PREF_RETRY_MAX_DELAY_MS = "AgeVerificationRetryMaxDelayMs";
+    private static final String PREF_RETRY_BUDGET = "AgeVerificationRetryBudget";
+    private static final String PREF_BREAKER_FAILURE_THRESHOLD = "AgeVerificationBreakerFailureThreshold";
+    private static final String PREF_BREAKER_COOLDOWN_MS = "AgeVerificationBreakerCooldownMs";
+    private static final String PREF_HEDGE = "AgeVerificationHedge";
+    private static final String PREF_HEDGE_PERCENTILE = "AgeVerificationHedgePercentile";
+    private static final String PREF_HEDGE_BUDGET_PERCENT = "AgeVerificationHedgeBudgetPercent";
+    private static final String PREF_TRACE = "AgeVerificationTrace";
+    private static final String PREF_SUBSCRIPTION_INTERVAL_MS = "AgeVerificationSubscriptionIntervalMs";
+    // Default limit for every bucket; AgeVerificationRateLimit<Action> or ...Background overrides one
+    private static final String PREF_RATE_LIMIT = "AgeVerificationRateLimit";
+    private static final String PREF_EXECUTOR_QUEUE_SIZE = "AgeVerificationExecutorQueueSize";
+    private static final String PREF_REJECTION_POLICY = "AgeVerificationRejectionPolicy";
+    private static final String PREF_INITIAL_SNAPSHOT = "AgeVerificationInitialSnapshot";
+    private static final String PREF_ERROR_LAST_KNOWN = "AgeVerificationErrorLastKnown";
+    // Global the JavaScript module reads while loading, before the bridge is up
+    private static final String JS_STARTUP_CONFIG = "AgeVerificationStartup";
+    private static final int AVAILABILITY_INITIALIZING = 2;
+
+    // Shared across plugin instances so the cache survives WebView re-creation
+    private static final AgeSignalsCache cache = new AgeSignalsCache();
+    // Per process, so the retry budget can't be reset by reloading the WebView
+    private static final RetryPolicy retryPolicy = new RetryPolicy();
+    private static final CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private static final HedgePolicy hedgePolicy = new HedgePolicy();
+    private static final AgeVerificationMetrics metrics = new AgeVerificationMetrics();
+    // One rate limit bucket per action, then one for requests the plugin starts on its own
+    private static final int RATE_LIMIT_BACKGROUND = AgeVerificationMetrics.ACTION_COUNT;
+    private static final int RATE_LIMIT_BUCKETS = RATE_LIMIT_BACKGROUND + 1;
+    private static final RateLimiter rateLimiter = new RateLimiter(RATE_LIMIT_BUCKETS);
+    private static final PrioritizedExecutor executor = AgeVerificationExecutors.plugin();
+
+    // Provider construction runs in the background; the fetcher wraps the provider
+    private final BackgroundInitializer<AgeSignalsFetcher> fetcherInitializer = new BackgroundInitializer<>();
+    // Process-wide like the cache; set by pluginInitialize on the main thread, read from bridge and pool threads
+    private volatile AgeSignalsSnapshotStore snapshotStore;
+    // Callbacks belong to this WebView, so subscriptions are per plugin instance
+    private final AgeSignalsSubscriptions subscriptions = new AgeSignalsSubscriptions(fetcherInitializer,
+        AgeVerificationExecutors.scheduler(), executor.lane(PrioritizedExecutor.Lane.BACKGROUND));
+    private final AgeSignalsRefreshScheduler refreshScheduler = new AgeSignalsRefreshScheduler(fetcherInitializer,
+        cache, AgeVerificationExecutors.scheduler(), executor.lane(PrioritizedExecutor.Lane.BACKGROUND));
+    private volatile RejectionPolicy rejectionPolicy = RejectionPolicy.CACHE;
+    // Opt-in: attaching lastKnown builds every error per call instead of using the shared table
+    private volatile boolean errorLastKnown;
+    // Calls from this WebView still waiting for an answer, released on reset and destroy
+    private final PendingCalls pendingCalls = new PendingCalls();
+
+    /**
+     * Writes the action-specific fields of the response for an age signals snapshot
+     */
+    private interface ResponseBuilder {
+        void write(JsonResponseWriter writer, AgeSignalsSnapshot snapshot);
+    }
+
+    /**
+     * Builds a binary payload sent to JavaScript as an ArrayBuffer alongside the JSON response
+     */
+    private interface AttachmentBuilder {
+        byte[] build(AgeSignalsSnapshot snapshot);
+    }
 
-    private AgeSignalsManager ageSignalsManager;
-    private String initializationError;
+    /**
+     * Why a call was answered from the last-known snapshot instead of by the fetcher
+     */
+    private enum Fallback {
+        NONE,
+        /** The call's timeoutMs passed first */
+        TIMED_OUT,
+        /** The action's rate limit was exhausted */
+        RATE_LIMITED,
+        /** The plugin executor's user-blocking lane was full */
+        OVERLOADED
+    }
+
+    /**
+     * What to do with a call when the plugin executor's user-blocking lane is full
+     */
+    private enum RejectionPolicy {
+        /** Answer from the last-known snapshot, or with an overloaded error if there is none */
+        CACHE,
+        /** Answer with an overloaded error */
+        ERROR,
+        /** Accept the call anyway; its response is built on the thread that received the result */
+        CALLER_RUNS
+    }
+
+    /**
+     * Preferences the JavaScript module needs synchronously while it loads
+     * Only holds plain values; the page can't reach the plugin through it.
+     */
+    static final class StartupConfig {
+        private final boolean initialSnapshot;
+
+        StartupConfig(boolean initialSnapshot) {
+            this.initialSnapshot = initialSnapshot;
+        }
+
+        /**
+         * Whether to hold deviceready for getInitialSnapshot
+         */
+        @JavascriptInterface
+        public boolean isInitialSnapshotEnabled() {
+            return initialSnapshot;
+        }
+    }
 
     @Override
     protected void pluginInitialize() {
         super.pluginInitialize();
-        try {
-            ageSignalsManager = AgeSignalsManagerFactory.create(cordova.getActivity().getApplicationContext());
-            initializationError = null;
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to initialize AgeSignalsManager: " + e.getMessage());
-            initializationError = e.getMessage();
-            ageSignalsManager = null;
+        AgeVerificationTrace.setEnabled(preferences.getBoolean(PREF_TRACE, false));
+        cache.setTtlMs(preferences.getInteger(PREF_CACHE_TTL_MS, AgeSignalsCache.DEFAULT_TTL_MS));
+        cache.setSoftTtlMs(preferences.getInteger(PREF_CACHE_SOFT_TTL_MS, 0));
+        retryPolicy.configure(
+            preferences.getInteger(PREF_RETRY_MAX_ATTEMPTS, RetryPolicy.DEFAULT_MAX_ATTEMPTS),
+            preferences.getInteger(PREF_RETRY_BASE_DELAY_MS, RetryPolicy.DEFAULT_BASE_DELAY_MS),
+            preferences.getInteger(PREF_RETRY_MAX_DELAY_MS, RetryPolicy.DEFAULT_MAX_DELAY_MS),
+            preferences.getInteger(PREF_RETRY_BUDGET, RetryPolicy.DEFAULT_BUDGET));
+        circuitBreaker.configure(
+            preferences.getInteger(PREF_BREAKER_FAILURE_THRESHOLD, CircuitBreaker.DEFAULT_FAILURE_THRESHOLD),
+            preferences.getInteger(PREF_BREAKER_COOLDOWN_MS, CircuitBreaker.DEFAULT_COOLDOWN_MS));
+        configureRateLimits();
+        executor.setQueueCapacity(
+            preferences.getInteger(PREF_EXECUTOR_QUEUE_SIZE, PrioritizedExecutor.DEFAULT_QUEUE_CAPACITY));
+        rejectionPolicy = parseRejectionPolicy(preferences.getString(PREF_REJECTION_POLICY, "cache"));
+        errorLastKnown = preferences.getBoolean(PREF_ERROR_LAST_KNOWN, false);
+        subscriptions.setIntervalMs(
+            preferences.getInteger(PREF_SUBSCRIPTION_INTERVAL_MS, AgeSignalsSubscriptions.DEFAULT_INTERVAL_MS));
+        hedgePolicy.configure(
+            preferences.getBoolean(PREF_HEDGE, false),
+            preferences.getInteger(PREF_HEDGE_PERCENTILE, HedgePolicy.DEFAULT_PERCENTILE),
+            preferences.getInteger(PREF_HEDGE_BUDGET_PERCENT, HedgePolicy.DEFAULT_BUDGET_PERCENT));
+
+        // onload makes this run before the first page load, so the module can read it synchronously.
+        // Other WebView engines don't get it, and the module then never holds deviceready.
+        View view = webView.getView();
+        if (view instanceof WebView) {
+            ((WebView) view).addJavascriptInterface(
+                new StartupConfig(preferences.getBoolean(PREF_INITIAL_SNAPSHOT, false)), JS_STARTUP_CONFIG);
+        }
+
+        // Restore the last-known-good snapshot off the UI thread so cold starts can answer immediately
+        snapshotStore = AgeSignalsSnapshotStore.getInstance(cordova.getActivity().getApplicationContext());
+        snapshotStore.load(preferences.getInteger(PREF_SNAPSHOT_MAX_AGE_MS, DEFAULT_SNAPSHOT_MAX_AGE_MS), snapshot -> {
+            if (snapshot != null) {
+                cache.restore(snapshot);
+            }
+        });
+
+        // pluginInitialize runs on the main thread, so keep manager construction off it
+        boolean prefetch = preferences.getBoolean(PREF_PREFETCH, false);
+        fetcherInitializer.start(() -> {
+            boolean traced = AgeVerificationTrace.begin(AgeVerificationTrace.INIT);
+            try {
+                // Scripted results stay in memory so they can't outlive a switch back to Google Play
+                AgeSignalsFetcher fetcher = new AgeSignalsFetcher(createProvider(), cache,
+                    isFakeProvider() ? null : snapshotStore, metrics, retryPolicy, circuitBreaker, hedgePolicy,
+                    rateLimiter, RATE_LIMIT_BACKGROUND, AgeVerificationExecutors.scheduler());
+
+                // Opt-in: start fetching now so the first JS call finds the result in flight or done
+                if (prefetch) {
+                    fetcher.prefetch();
+                }
+                return fetcher;
+            } catch (Exception e) {
+                Log.e(TAG, "Failed to initialize AgeSignalsManager: " + e.getMessage());
+                throw e;
+            } finally {
+                AgeVerificationTrace.end(traced);
+            }
+        }, task -> {
+            // The first task on an idle pool is never refused, but don't lose initialization if it is
+            if (!executor.tryExecute(PrioritizedExecutor.Lane.BACKGROUND, task)) {
+                cordova.getThreadPool().execute(task);
+            }
+        });
+
+        // No-op unless a soft TTL is configured
+        refreshScheduler.resume();
+    }
+
+    /**
+     * Apply AgeVerificationRateLimit to every bucket, then any per-bucket override such as
+     * AgeVerificationRateLimitIsUserAboveAge. Values are "ratePerSecond:burst"; "0" disables.
+     */
+    private void configureRateLimits() {
+        String defaultLimit = preferences.getString(PREF_RATE_LIMIT, null);
+        for (int bucket = 0; bucket < RATE_LIMIT_BUCKETS; bucket++) {
+            String name = rateLimitBucketName(bucket);
+            String preference = PREF_RATE_LIMIT + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            String limit = preferences.getString(preference, defaultLimit);
+            if (limit != null && !rateLimiter.configure(bucket, limit)) {
+                Log.w(TAG, "Ignoring invalid rate limit for " + name + ": " + limit);
+            }
+        }
+    }
+
+    private static String rateLimitBucketName(int bucket) {
+        return bucket == RATE_LIMIT_BACKGROUND ? "background" : AgeVerificationMetrics.actionName(bucket);
+    }
+
+    /**
+     * Parse AgeVerificationRejectionPolicy: "cache", "error" or "caller-runs"
+     */
+    private static RejectionPolicy parseRejectionPolicy(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "error":
+                return RejectionPolicy.ERROR;
+            case "caller-runs":
+                return RejectionPolicy.CALLER_RUNS;
+            case "cache":
+                return RejectionPolicy.CACHE;
+            default:
+                Log.w(TAG, "Unknown rejection policy " + value + "; using cache");
+                return RejectionPolicy.CACHE;
         }
     }
 
+    @Override
+    public void onPause(boolean multitasking) {
+        refreshScheduler.pause();
+        super.onPause(multitasking);
+    }
+
+    @Override
+    public void onResume(boolean multitasking) {
+        super.onResume(multitasking);
+        refreshScheduler.resume();
+    }
+
+    /**
+     * The WebView is navigating or reloading: the old page can no longer receive answers, so drop
+     * its pending calls and subscriptions. Fetches already in flight keep running and still
+     * refresh the cache.
+     */
+    @Override
+    public void onReset() {
+        pendingCalls.reset();
+        subscriptions.clear();
+        super.onReset();
+    }
+
+    @Override
+    public void onDestroy() {
+        refreshScheduler.pause();
+        pendingCalls.clear();
+        subscriptions.clear();
+        super.onDestroy();
+    }
+
+    /**
+     * Create the configured age signals source: Google Play by default, or the in-process fake
+     * when the AgeVerificationProvider preference is "fake" (load testing only)
+     */
+    private AgeSignalsProvider createProvider() {
+        QueueTimedExecutor callbacks = AgeVerificationExecutors.callbacks();
+        callbacks.setWaitRecorder(metrics::recordQueueWait);
+        if (isFakeProvider()) {
+            Log.w(TAG, "Using FakeAgeSignalsProvider; age signals are scripted, not from Google Play");
+            // Process-wide threads, so re-created plugins don't each leave a timer thread behind
+            return FakeAgeSignalsProvider.fromPreferences(preferences, AgeVerificationExecutors.scheduler(),
+                callbacks);
+        }
+        AgeSignalsManager ageSignalsManager =
+            AgeSignalsManagerFactory.create(cordova.getActivity().getApplicationContext());
+        return new PlayAgeSignalsProvider(ageSignalsManager, callbacks);
+    }
+
+    private boolean isFakeProvider() {
+        return "fake".equalsIgnoreCase(preferences.getString(PREF_PROVIDER, "play"));
+    }
+
     @Override
     public boolean execute(String action, JSONArray args, CallbackContext callbackContext) throws JSONException {
+        // Covers dispatch and argument validation; fetches continue in the background
+        boolean traced = AgeVerificationTrace.begin(AgeVerificationTrace.EXECUTE);
+        try {
+            return dispatch(action, args, callbackContext);
+        } finally {
+            AgeVerificationTrace.end(traced);
+        }
+    }
+
+    private boolean dispatch(String action, JSONArray args, CallbackContext callbackContext) throws JSONException {
         switch (action) {
             case "isAvailable":
                 isAvailable(callbackContext);
@@ -54,11 +331,35 @@ public class AgeVerificationAndroid extends CordovaPlugin {
             case "isUserAboveAge":
                 isUserAboveAge(args, callbackContext);
                 return true;
+            case "isUserAboveAges":
+                isUserAboveAges(args, callbackContext);
+                return true;
+            case "filterByMinimumAge":
+                filterByMinimumAge(args, callbackContext);
+                return true;
             case "getPlatformInfo":
                 getPlatformInfo(callbackContext);
                 return true;
             case "checkAgeSignals":
-                checkAgeSignals(callbackContext);
+                checkAgeSignals(args, callbackContext);
+                return true;
+            case "invalidateCache":
+                invalidateCache(callbackContext);
+                return true;
+            case "getMetrics":
+                getMetrics(args, callbackContext);
+                return true;
+            case "cancel":
+                cancel(args, callbackContext);
+                return true;
+            case "subscribe":
+                subscribe(args, callbackContext);
+                return true;
+            case "unsubscribe":
+                unsubscribe(args, callbackContext);
+                return true;
+            case "getInitialSnapshot":
+                getInitialSnapshot(callbackContext);
                 return true;
             default:
                 callbackContext.error("Unknown action: " + action);
@@ -68,9 +369,16 @@ public class AgeVerificationAndroid extends CordovaPlugin {
 
     /**
      * Check if the Play Age Signals API is available
+     * Answers 2 while the AgeSignalsManager is still being constructed rather than waiting for it.
      */
     private void isAvailable(CallbackContext callbackContext) {
-        boolean available = ageSignalsManager != null && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
+        BackgroundInitializer.State state = fetcherInitializer.getState();
+        if (state == BackgroundInitializer.State.INITIALIZING) {
+            callbackContext.success(AVAILABILITY_INITIALIZING);
+            return;
+        }
+        boolean available = state == BackgroundInitializer.State.READY
+            && Build.VERSION.SDK_INT >= Build.VERSION_CODES.M;
         callbackContext.success(available ? 1 : 0);
     }
 
@@ -112,11 +420,7 @@ public class AgeVerificationAndroid extends CordovaPlugin {
      * We validate the age gates for consistency and use them to filter/interpret results.
      */
     private void requestAgeRange(JSONArray args, CallbackContext callbackContext) {
-        if (ageSignalsManager == null) {
-            String errorMsg = initializationError != null
-                ? "Play Age Signals API not available: " + initializationError
-                : "Play Age Signals API not available";
-            sendError(callbackContext, "unsupported", errorMsg);
+        if (!ensureApiAvailable(callbackContext)) {
             return;
         }
 
@@ -134,37 +438,21 @@ public class AgeVerificationAndroid extends CordovaPlugin {
             return;
         }
 
-        cordova.getThreadPool().execute(() -> {
-            try {
-                AgeSignalsRequest request = AgeSignalsRequest.builder().build();
-
-                ageSignalsManager.checkAgeSignals(request)
-                    .addOnSuccessListener(result -> {
-                        try {
-                            JSONObject response = processAgeSignalsResult(result, ageGates);
-                            callbackContext.success(response);
-                        } catch (JSONException e) {
-                            sendError(callbackContext, "parse_error", "Failed to parse response: " + e.getMessage());
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        handleAgeSignalsError(e, callbackContext);
-                    });
-            } catch (Exception e) {
-                sendError(callbackContext, "unknown", e.getMessage());
-            }
-        });
+        long timeoutMs = getTimeoutMs(args, 1, callbackContext);
+        if (timeoutMs < 0) {
+            return;
+        }
+
+        fetchAgeSignals(callbackContext, getRequestId(args, 1), AgeVerificationMetrics.ACTION_REQUEST_AGE_RANGE,
+            timeoutMs,
+            (writer, snapshot) -> AgeSignalsResponses.writeAgeRangeResult(writer, snapshot, ageGates));
     }
 
     /**
      * Check if user is above a specific age
      */
     private void isUserAboveAge(JSONArray args, CallbackContext callbackContext) {
-        if (ageSignalsManager == null) {
-            String errorMsg = initializationError != null
-                ? "Play Age Signals API not available: " + initializationError
-                : "Play Age Signals API not available";
-            sendError(callbackContext, "unsupported", errorMsg);
+        if (!ensureApiAvailable(callbackContext)) {
             return;
         }
 
@@ -183,96 +471,457 @@ public class AgeVerificationAndroid extends CordovaPlugin {
             return;
         }
 
-        cordova.getThreadPool().execute(() -> {
-            try {
-                AgeSignalsRequest request = AgeSignalsRequest.builder().build();
-
-                ageSignalsManager.checkAgeSignals(request)
-                    .addOnSuccessListener(result -> {
-                        try {
-                            JSONObject response = new JSONObject();
-                            response.put("minimumAge", minimumAge);
-
-                            Integer ageLower = result.ageLower();
-                            Integer ageUpper = result.ageUpper();
-                            AgeSignalsVerificationStatus status = result.userStatus();
-
-                            // Always include bounds for consistent response shape
-                            response.put("lowerBound", ageLower != null ? ageLower : JSONObject.NULL);
-                            response.put("upperBound", ageUpper != null ? ageUpper : JSONObject.NULL);
-
-                            if (status == null || status == AgeSignalsVerificationStatus.UNKNOWN) {
-                                response.put("isAboveAge", false);
-                                response.put("declined", false);
-                                response.put("unknown", true);
-                            } else if (status == AgeSignalsVerificationStatus.SUPERVISED_APPROVAL_DENIED) {
-                                response.put("isAboveAge", false);
-                                response.put("declined", true);
-                                response.put("unknown", false);
+        long timeoutMs = getTimeoutMs(args, 1, callbackContext);
+        if (timeoutMs < 0) {
+            return;
+        }
+
+        fetchAgeSignals(callbackContext, getRequestId(args, 1), AgeVerificationMetrics.ACTION_IS_USER_ABOVE_AGE,
+            timeoutMs,
+            (writer, snapshot) -> AgeSignalsResponses.writeAgeCheckResult(writer, snapshot, minimumAge));
+    }
+
+    /**
+     * Check any number of age thresholds against a single age signals result
+     */
+    private void isUserAboveAges(JSONArray args, CallbackContext callbackContext) {
+        if (!ensureApiAvailable(callbackContext)) {
+            return;
+        }
+
+        int[] minimumAges;
+        try {
+            JSONArray minimumAgesArray = args.getJSONArray(0);
+            if (minimumAgesArray.length() == 0) {
+                sendError(callbackContext, "invalid_arguments", "minimumAges must be a non-empty array of integers");
+                return;
+            }
+            minimumAges = getAgeGatesFromArray(minimumAgesArray);
+        } catch (JSONException e) {
+            sendError(callbackContext, "invalid_arguments", "Please provide an array of minimum ages as integers");
+            return;
+        }
+
+        for (int minimumAge : minimumAges) {
+            if (minimumAge < MIN_AGE || minimumAge > MAX_AGE) {
+                sendError(callbackContext, "invalid_arguments",
+                    "minimumAges must be between " + MIN_AGE + " and " + MAX_AGE);
+                return;
+            }
+        }
+
+        fetchAgeSignals(callbackContext, null, AgeVerificationMetrics.ACTION_IS_USER_ABOVE_AGES, 0,
+            (writer, snapshot) -> AgeSignalsResponses.writeAgeChecksResult(writer, snapshot, minimumAges));
+    }
+
+    /**
+     * Filter a packed list of item minimum ages against the current age signal
+     * Takes one unsigned byte per item (0 means unrestricted) and answers with a bitset in which
+     * bit i (LSB first) is set when item i is allowed, so large feeds need a single bridge call.
+     */
+    private void filterByMinimumAge(JSONArray args, CallbackContext callbackContext) {
+        if (!ensureApiAvailable(callbackContext)) {
+            return;
+        }
+
+        byte[] itemMinimumAges;
+        try {
+            itemMinimumAges = new CordovaArgs(args).getArrayBuffer(0);
+        } catch (JSONException e) {
+            sendError(callbackContext, "invalid_arguments", "Please provide item minimum ages as a packed byte array");
+            return;
+        }
+
+        for (byte packed : itemMinimumAges) {
+            if ((packed & 0xFF) > MAX_AGE) {
+                sendError(callbackContext, "invalid_arguments",
+                    "Item minimum ages must be between 0 and " + MAX_AGE);
+                return;
+            }
+        }
+
+        fetchAgeSignals(callbackContext, null, AgeVerificationMetrics.ACTION_FILTER_BY_MINIMUM_AGE, 0,
+            (writer, snapshot) -> AgeSignalsResponses.writeFilterResult(writer, snapshot, itemMinimumAges.length),
+            snapshot -> AgeSignalsResponses.filterItems(snapshot, itemMinimumAges));
+    }
+
+    /**
+     * Full age signals check - Android-specific method that returns all available data
+     */
+    private void checkAgeSignals(JSONArray args, CallbackContext callbackContext) {
+        if (!ensureApiAvailable(callbackContext)) {
+            return;
+        }
+
+        long timeoutMs = getTimeoutMs(args, 0, callbackContext);
+        if (timeoutMs < 0) {
+            return;
+        }
+
+        fetchAgeSignals(callbackContext, getRequestId(args, 0), AgeVerificationMetrics.ACTION_CHECK_AGE_SIGNALS,
+            timeoutMs,
+            AgeSignalsResponses::writeFullAgeSignalsResult);
+    }
+
+    /**
+     * Stream age signals to JavaScript whenever the status, bounds or approval date change
+     * The callback is kept alive until unsubscribe; the first event carries the current signals.
+     */
+    private void subscribe(JSONArray args, CallbackContext callbackContext) {
+        if (!ensureApiAvailable(callbackContext)) {
+            return;
+        }
+
+        String subscriptionId = args.optString(0, "");
+        if (subscriptionId.isEmpty()) {
+            sendError(callbackContext, "invalid_arguments", "Please provide a subscription id");
+            return;
+        }
+        if (!subscriptions.subscribe(subscriptionId, callbackContext)) {
+            sendError(callbackContext, "invalid_arguments", "Subscription " + subscriptionId + " already exists");
+        }
+    }
+
+    /**
+     * Stop a subscription and release its callback
+     */
+    private void unsubscribe(JSONArray args, CallbackContext callbackContext) {
+        String subscriptionId = args.optString(0, "");
+        if (!subscriptions.unsubscribe(subscriptionId)) {
+            sendError(callbackContext, "invalid_arguments", "No subscription with id " + subscriptionId);
+            return;
+        }
+        callbackContext.success();
+    }
+
+    /**
+     * Answer with the last-known snapshot for AgeVerification.initialSnapshot, or null when the
+     * AgeVerificationInitialSnapshot preference is off or nothing is known yet
+     * When the preference is on, JavaScript calls this once per page load and holds deviceready for
+     * the answer, so it never waits for Google Play, only for the startup restore from disk.
+     */
+    private void getInitialSnapshot(CallbackContext callbackContext) {
+        if (!preferences.getBoolean(PREF_INITIAL_SNAPSHOT, false)) {
+            send(callbackContext, new RawJsonPluginResult(PluginResult.Status.OK, "null"));
+            return;
+        }
+        snapshotStore.afterPendingWork(() -> {
+            AgeSignalsSnapshot snapshot = cache.getLastKnown();
+            if (snapshot == null) {
+                send(callbackContext, new RawJsonPluginResult(PluginResult.Status.OK, "null"));
+                return;
+            }
+            long now = System.currentTimeMillis();
+            JsonResponseWriter writer = JsonResponseWriter.obtain().beginObject();
+            AgeSignalsResponses.writeFullAgeSignalsResult(writer, snapshot);
+            writer.field("fromCache", true);
+            writer.field("stale", cache.getFresh(now) != snapshot);
+            writer.field("ageMs", snapshot.ageMs(now));
+            writer.field("fetchedAt", snapshot.fetchedAtMillis);
+            send(callbackContext, new RawJsonPluginResult(PluginResult.Status.OK, writer.endObject().toJson()));
+        });
+    }
+
+    /**
+     * Read the optional timeoutMs from a call's options object
+     * @return The deadline in milliseconds, 0 for none, or -1 after sending an invalid_arguments error
+     */
+    private long getTimeoutMs(JSONArray args, int index, CallbackContext callbackContext) {
+        JSONObject options = args.optJSONObject(index);
+        if (options == null || options.isNull("timeoutMs")) {
+            return 0;
+        }
+        long timeoutMs = options.optLong("timeoutMs", -1);
+        if (timeoutMs <= 0) {
+            sendError(callbackContext, "invalid_arguments", "timeoutMs must be a positive number of milliseconds");
+            return -1;
+        }
+        return timeoutMs;
+    }
+
+    /**
+     * Read the optional requestId from a call's options object, or null
+     */
+    private static String getRequestId(JSONArray args, int index) {
+        JSONObject options = args.optJSONObject(index);
+        String requestId = options != null ? options.optString("requestId", "") : "";
+        return requestId.isEmpty() ? null : requestId;
+    }
+
+    /**
+     * Answer a pending call early with a cancelled error
+     * The Play request behind it is shared with other callers, so it keeps running and still
+     * refreshes the cache. Succeeds with false if no call with that id is waiting.
+     */
+    private void cancel(JSONArray args, CallbackContext callbackContext) {
+        String requestId = args.optString(0, "");
+        if (requestId.isEmpty()) {
+            sendError(callbackContext, "invalid_arguments", "Please provide a request id");
+            return;
+        }
+        CallbackContext cancelled = pendingCalls.cancel(requestId);
+        if (cancelled != null) {
+            sendError(cancelled, "cancelled", "Request " + requestId + " was cancelled");
+        }
+        callbackContext.sendPluginResult(new PluginResult(PluginResult.Status.OK, cancelled != null));
+    }
+
+    /**
+     * Drop the cached age signals so the next call fetches fresh data from Google Play
+     */
+    private void invalidateCache(CallbackContext callbackContext) {
+        cache.invalidate();
+        snapshotStore.clear();
+        callbackContext.success();
+    }
+
+    /**
+     * Answer from the cache when the last result is still fresh, otherwise fetch from Google Play.
+     * Concurrent callers share a single in-flight request and each builds its own response from
+     * the shared result. Every response carries fromCache, stale and ageMs so callers can tell how
+     * old the data is, attempts for the number of Play requests behind it, plus prefetchLeadMs
+     * when the result came from the startup prefetch.
+     * With a timeoutMs, a call still waiting at the deadline is answered from the last-known
+     * snapshot, or with a timeout error if there is none. The request keeps running and refreshes
+     * the cache for later calls.
+     * A call that has to start a request to Google Play charges it to the action's rate limit;
+     * when the request is refused, its callers fall back to the last-known snapshot or a
+     * rate_limited error.
+     * Starting or joining the request returns at once, so it happens on the calling bridge thread.
+     * The response is built on the user-blocking lane of the plugin executor; when that lane is
+     * already full, new calls are shed according to AgeVerificationRejectionPolicy.
+     */
+    private void fetchAgeSignals(CallbackContext callbackContext, String requestId, int action, long timeoutMs,
+                                 ResponseBuilder builder) {
+        fetchAgeSignals(callbackContext, requestId, action, timeoutMs, builder, null);
+    }
+
+    private void fetchAgeSignals(CallbackContext callbackContext, String requestId, int action, long timeoutMs,
+                                 ResponseBuilder builder, AttachmentBuilder attachmentBuilder) {
+        long requestedAt = SystemClock.elapsedRealtime();
+        // Closures below hold the call, never the callback, so settling releases the page's callback
+        PendingCall call = pendingCalls.register(callbackContext, requestId);
+        if (timeoutMs > 0) {
+            call.setDeadline(AgeVerificationExecutors.scheduler().schedule(() -> {
+                respond(() -> {
+                    CallbackContext timedOut = call.settle();
+                    if (timedOut != null) {
+                        metrics.recordLatency(action, SystemClock.elapsedRealtime() - requestedAt);
+                        sendTimedOut(timedOut, builder, attachmentBuilder, timeoutMs);
+                    }
+                });
+            }, timeoutMs, TimeUnit.MILLISECONDS));
+        }
+
+        // Responses are already backed up; shed rather than add another behind them
+        if (rejectionPolicy != RejectionPolicy.CALLER_RUNS
+                && !executor.tryAdmit(PrioritizedExecutor.Lane.USER_BLOCKING)) {
+            CallbackContext shed = call.settle();
+            if (shed != null) {
+                metrics.recordLatency(action, SystemClock.elapsedRealtime() - requestedAt);
+                sendOverloaded(shed, builder, attachmentBuilder);
+            }
+            return;
+        }
+        fetch(call, action, requestedAt, builder, attachmentBuilder);
+    }
+
+    /**
+     * Build and send a response on the user-blocking lane, or on the current thread if that lane is
+     * full; the outcome is already known, so it is never dropped
+     */
+    private static void respond(Runnable response) {
+        if (!executor.tryExecute(PrioritizedExecutor.Lane.USER_BLOCKING, response)) {
+            response.run();
+        }
+    }
+
+    private void fetch(PendingCall call, int action, long requestedAt, ResponseBuilder builder,
+                       AttachmentBuilder attachmentBuilder) {
+        // Queues behind manager construction if it hasn't finished yet
+        fetcherInitializer.whenReady(new BackgroundInitializer.Callback<AgeSignalsFetcher>() {
+            @Override
+            public void onReady(AgeSignalsFetcher fetcher) {
+                // The action's rate limit is only charged if this call starts a request
+                fetcher.fetch(action, new AgeSignalsFetcher.Listener() {
+                    @Override
+                    public void onSuccess(AgeSignalsSnapshot snapshot, AgeSignalsFetcher.Origin origin,
+                                          int attempts) {
+                        // Changes seen by any call reach subscribers without waiting for their loop
+                        subscriptions.publish(snapshot);
+                        respond(() -> {
+                            CallbackContext callbackContext = call.settle();
+                            if (callbackContext != null) {
+                                metrics.recordLatency(action, SystemClock.elapsedRealtime() - requestedAt);
+                                metrics.recordOrigin(origin);
+                                sendResult(callbackContext, builder, attachmentBuilder, snapshot, origin, attempts,
+                                    fetcher.getPrefetchLeadMs(snapshot, requestedAt), Fallback.NONE);
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onFailure(Exception e, int attempts) {
+                        respond(() -> {
+                            CallbackContext callbackContext = call.settle();
+                            if (callbackContext == null) {
+                                return;
+                            }
+                            metrics.recordLatency(action, SystemClock.elapsedRealtime() - requestedAt);
+                            if (e instanceof RateLimitedException) {
+                                sendRateLimited(callbackContext, action, builder, attachmentBuilder,
+                                    ((RateLimitedException) e).getRetryAfterMs());
                             } else {
-                                response.put("declined", false);
-                                response.put("unknown", false);
-
-                                if (ageLower != null) {
-                                    response.put("isAboveAge", ageLower >= minimumAge);
-                                } else {
-                                    response.put("isAboveAge", false);
-                                }
+                                handleAgeSignalsError(e, attempts, callbackContext);
                             }
+                        });
+                    }
+                });
+            }
 
-                            callbackContext.success(response);
-                        } catch (JSONException e) {
-                            sendError(callbackContext, "parse_error", "Failed to parse response: " + e.getMessage());
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        handleAgeSignalsError(e, callbackContext);
-                    });
-            } catch (Exception e) {
-                sendError(callbackContext, "unknown", e.getMessage());
+            @Override
+            public void onFailed(Exception error) {
+                respond(() -> {
+                    CallbackContext callbackContext = call.settle();
+                    if (callbackContext != null) {
+                        metrics.recordLatency(action, SystemClock.elapsedRealtime() - requestedAt);
+                        sendUnavailableError(callbackContext);
+                    }
+                });
             }
         });
     }
 
     /**
-     * Full age signals check - Android-specific method that returns all available data
+     * Answer a call whose deadline passed before the fetch completed
      */
-    private void checkAgeSignals(CallbackContext callbackContext) {
-        if (ageSignalsManager == null) {
-            String errorMsg = initializationError != null
-                ? "Play Age Signals API not available: " + initializationError
-                : "Play Age Signals API not available";
-            sendError(callbackContext, "unsupported", errorMsg);
+    private void sendTimedOut(CallbackContext callbackContext, ResponseBuilder builder,
+                              AttachmentBuilder attachmentBuilder, long timeoutMs) {
+        AgeSignalsSnapshot lastKnown = cache.getLastKnown();
+        if (lastKnown == null) {
+            sendError(callbackContext, "timeout", "No age signals within " + timeoutMs + " ms");
             return;
         }
+        sendResult(callbackContext, builder, attachmentBuilder, lastKnown,
+            AgeSignalsFetcher.Origin.CACHE, 0, -1, Fallback.TIMED_OUT);
+    }
 
-        cordova.getThreadPool().execute(() -> {
+    /**
+     * Answer a call shed because the plugin executor is saturated
+     */
+    private void sendOverloaded(CallbackContext callbackContext, ResponseBuilder builder,
+                                AttachmentBuilder attachmentBuilder) {
+        AgeSignalsSnapshot lastKnown = rejectionPolicy == RejectionPolicy.CACHE ? cache.getLastKnown() : null;
+        if (lastKnown == null) {
             try {
-                AgeSignalsRequest request = AgeSignalsRequest.builder().build();
-
-                ageSignalsManager.checkAgeSignals(request)
-                    .addOnSuccessListener(result -> {
-                        try {
-                            // Use default age gates for checkAgeSignals
-                            JSONObject response = processAgeSignalsResult(result, new int[]{13, 16, 18});
-                            // Add Android-specific fields
-                            response.put("installId", result.installId() != null ? result.installId() : JSONObject.NULL);
-                            response.put("mostRecentApprovalDate",
-                                result.mostRecentApprovalDate() != null ?
-                                result.mostRecentApprovalDate().toString() : JSONObject.NULL);
-
-                            callbackContext.success(response);
-                        } catch (JSONException e) {
-                            sendError(callbackContext, "parse_error", "Failed to parse response: " + e.getMessage());
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        handleAgeSignalsError(e, callbackContext);
-                    });
-            } catch (Exception e) {
-                sendError(callbackContext, "unknown", e.getMessage());
+                JSONObject error = new JSONObject();
+                error.put("error", "overloaded");
+                error.put("message", "Too many age signals requests queued; try again shortly");
+                error.put("retryable", true);
+                callbackContext.error(error);
+            } catch (JSONException e) {
+                callbackContext.error("Error: overloaded");
             }
-        });
+            return;
+        }
+        sendResult(callbackContext, builder, attachmentBuilder, lastKnown,
+            AgeSignalsFetcher.Origin.CACHE, 0, -1, Fallback.OVERLOADED);
+    }
+
+    /**
+     * Answer a call whose request to Google Play the rate limiter refused
+     */
+    private void sendRateLimited(CallbackContext callbackContext, int action, ResponseBuilder builder,
+                                 AttachmentBuilder attachmentBuilder, long retryAfterMs) {
+        AgeSignalsSnapshot lastKnown = cache.getLastKnown();
+        rateLimiter.recordRejection(action, lastKnown != null);
+        if (lastKnown != null) {
+            sendResult(callbackContext, builder, attachmentBuilder, lastKnown,
+                AgeSignalsFetcher.Origin.CACHE, 0, -1, Fallback.RATE_LIMITED);
+            return;
+        }
+        try {
+            JSONObject error = new JSONObject();
+            error.put("error", "rate_limited");
+            error.put("message", "Too many age signals requests; retry in " + retryAfterMs + " ms");
+            error.put("retryable", true);
+            error.put("retryAfterMs", retryAfterMs);
+            callbackContext.error(error);
+        } catch (JSONException e) {
+            callbackContext.error("Error: rate limited");
+        }
+    }
+
+    /**
+     * Build the response for a cached or fresh result and send it to JavaScript
+     * The response is streamed into a pooled buffer and handed to Cordova as prebuilt JSON.
+     * With an attachment, the ArrayBuffer and the JSON response arrive as two callback arguments.
+     */
+    private void sendResult(CallbackContext callbackContext, ResponseBuilder builder,
+                            AttachmentBuilder attachmentBuilder, AgeSignalsSnapshot snapshot,
+                            AgeSignalsFetcher.Origin origin, int attempts, long prefetchLeadMs,
+                            Fallback fallback) {
+        boolean traced = AgeVerificationTrace.begin(AgeVerificationTrace.BUILD_RESPONSE);
+        PluginResult response;
+        try {
+            JsonResponseWriter writer = JsonResponseWriter.obtain().beginObject();
+            builder.write(writer, snapshot);
+            writer.field("fromCache", origin != AgeSignalsFetcher.Origin.PLAY);
+            writer.field("stale", fallback != Fallback.NONE || origin == AgeSignalsFetcher.Origin.RESTORED);
+            writer.field("ageMs", snapshot.ageMs(System.currentTimeMillis()));
+            writer.field("attempts", attempts);
+            if (fallback == Fallback.TIMED_OUT) {
+                writer.field("timedOut", true);
+            } else if (fallback == Fallback.RATE_LIMITED) {
+                writer.field("rateLimited", true);
+            } else if (fallback == Fallback.OVERLOADED) {
+                writer.field("overloaded", true);
+            }
+            if (prefetchLeadMs >= 0) {
+                writer.field("prefetchLeadMs", prefetchLeadMs);
+            }
+            response = new RawJsonPluginResult(PluginResult.Status.OK, writer.endObject().toJson());
+            if (attachmentBuilder != null) {
+                response = new PluginResult(PluginResult.Status.OK, Arrays.asList(
+                    new PluginResult(PluginResult.Status.OK, attachmentBuilder.build(snapshot)),
+                    response));
+            }
+        } finally {
+            AgeVerificationTrace.end(traced);
+        }
+        send(callbackContext, response);
+    }
+
+    /**
+     * Hand a result to the Cordova bridge
+     */
+    private static void send(CallbackContext callbackContext, PluginResult result) {
+        boolean traced = AgeVerificationTrace.begin(AgeVerificationTrace.SEND);
+        try {
+            callbackContext.sendPluginResult(result);
+        } finally {
+            AgeVerificationTrace.end(traced);
+        }
+    }
+
+    /**
+     * Send an unsupported error if the AgeSignalsManager failed to initialize.
+     * Returns true while initialization is still running; calls queue behind it.
+     */
+    private boolean ensureApiAvailable(CallbackContext callbackContext) {
+        if (fetcherInitializer.getState() != BackgroundInitializer.State.FAILED) {
+            return true;
+        }
+        sendUnavailableError(callbackContext);
+        return false;
+    }
+
+    private void sendUnavailableError(CallbackContext callbackContext) {
+        Exception initializationError = fetcherInitializer.getStatus().error;
+        String errorMsg = initializationError != null && initializationError.getMessage() != null
+            ? "Play Age Signals API not available: " + initializationError.getMessage()
+            : "Play Age Signals API not available";
+        sendError(callbackContext, "unsupported", errorMsg);
     }
 
     /**
@@ -286,7 +935,55 @@ public class AgeVerificationAndroid extends CordovaPlugin {
             info.put("sdkVersion", Build.VERSION.SDK_INT);
             info.put("requiredSdkVersion", 23);
             info.put("minimumVersionMet", Build.VERSION.SDK_INT >= Build.VERSION_CODES.M);
-            info.put("apiAvailable", ageSignalsManager != null);
+            // One read, so state, duration and fetcher all describe the same moment
+            BackgroundInitializer.Status<AgeSignalsFetcher> init = fetcherInitializer.getStatus();
+            info.put("apiAvailable", init.state == BackgroundInitializer.State.READY);
+            info.put("initState", init.state.name().toLowerCase(Locale.US));
+            info.put("initDurationMs", init.durationMs >= 0 ? init.durationMs : JSONObject.NULL);
+
+            AgeSignalsFetcher fetcher = init.value;
+            JSONObject singleFlight = new JSONObject();
+            singleFlight.put("requestsStarted", fetcher != null ? fetcher.getFlightsStarted() : 0);
+            singleFlight.put("callsCoalesced", fetcher != null ? fetcher.getCallsCoalesced() : 0);
+            info.put("singleFlight", singleFlight);
+
+            JSONObject retry = new JSONObject();
+            retry.put("retriesScheduled", retryPolicy.getRetriesScheduled());
+            retry.put("retriesDeniedByBudget", retryPolicy.getRetriesDeniedByBudget());
+            retry.put("budgetRemaining", retryPolicy.getBudgetRemaining());
+            info.put("retry", retry);
+
+            JSONObject breakers = new JSONObject();
+            for (CircuitBreaker.ErrorClass errorClass : CircuitBreaker.ErrorClass.values()) {
+                JSONObject breaker = new JSONObject();
+                breaker.put("state", circuitBreaker.getState(errorClass).name().toLowerCase(Locale.US));
+                breaker.put("consecutiveFailures", circuitBreaker.getConsecutiveFailures(errorClass));
+                breaker.put("opens", circuitBreaker.getOpens(errorClass));
+                breaker.put("halfOpens", circuitBreaker.getHalfOpens(errorClass));
+                breaker.put("closes", circuitBreaker.getCloses(errorClass));
+                breaker.put("rejected", circuitBreaker.getRejected(errorClass));
+                breakers.put(errorClass.name().toLowerCase(Locale.US), breaker);
+            }
+            info.put("circuitBreaker", breakers);
+
+            JSONObject hedging = new JSONObject();
+            hedging.put("enabled", hedgePolicy.isEnabled());
+            long hedgeDelayMs = hedgePolicy.getHedgeDelayMs();
+            hedging.put("hedgeDelayMs", hedgeDelayMs >= 0 ? hedgeDelayMs : JSONObject.NULL);
+            hedging.put("hedgesSent", hedgePolicy.getHedgesSent());
+            hedging.put("hedgesWon", hedgePolicy.getHedgesWon());
+            hedging.put("hedgesDeniedByBudget", hedgePolicy.getHedgesDeniedByBudget());
+            info.put("hedging", hedging);
+
+            JSONObject rateLimits = new JSONObject();
+            for (int bucket = 0; bucket < RATE_LIMIT_BUCKETS; bucket++) {
+                JSONObject limit = new JSONObject();
+                limit.put("requestsRefused", rateLimiter.getRefused(bucket));
+                limit.put("rejected", rateLimiter.getRejected(bucket));
+                limit.put("servedFromCache", rateLimiter.getServedFromCache(bucket));
+                rateLimits.put(rateLimitBucketName(bucket), limit);
+            }
+            info.put("rateLimiter", rateLimits);
 
             callbackContext.success(info);
         } catch (JSONException e) {
@@ -295,157 +992,24 @@ public class AgeVerificationAndroid extends CordovaPlugin {
     }
 
     /**
-     * Process the AgeSignalsResult into a JSON response compatible with the cross-platform API
-     * @param result The age signals result from Google Play
-     * @param ageGates The age gates used for the request (for reference/logging)
-     */
-    private JSONObject processAgeSignalsResult(AgeSignalsResult result, int[] ageGates) throws JSONException {
-        JSONObject response = new JSONObject();
-
-        AgeSignalsVerificationStatus status = result.userStatus();
-        Integer ageLower = result.ageLower();
-        Integer ageUpper = result.ageUpper();
-
-        // Map status to cross-platform format
-        if (status == null || status == AgeSignalsVerificationStatus.UNKNOWN) {
-            response.put("status", "unknown");
-            response.put("shared", false);
-        } else if (status == AgeSignalsVerificationStatus.SUPERVISED_APPROVAL_DENIED) {
-            response.put("status", "declined");
-            response.put("shared", false);
-        } else if (status == AgeSignalsVerificationStatus.SUPERVISED_APPROVAL_PENDING) {
-            response.put("status", "pending");
-            response.put("shared", false);
-        } else {
-            response.put("status", "shared");
-            response.put("shared", true);
-        }
-
-        // Add age bounds
-        response.put("lowerBound", ageLower != null ? ageLower : JSONObject.NULL);
-        response.put("upperBound", ageUpper != null ? ageUpper : JSONObject.NULL);
-
-        // Include the age gates that were requested (for debugging/verification)
-        JSONArray ageGatesJson = new JSONArray();
-        for (int gate : ageGates) {
-            ageGatesJson.put(gate);
-        }
-        response.put("requestedAgeGates", ageGatesJson);
-
-        // Map verification status to source-like field
-        if (status != null) {
-            switch (status) {
-                case VERIFIED:
-                    response.put("source", "verified");
-                    response.put("userStatus", "verified");
-                    break;
-                case SUPERVISED:
-                    response.put("source", "supervised");
-                    response.put("userStatus", "supervised");
-                    break;
-                case SUPERVISED_APPROVAL_PENDING:
-                    response.put("source", "supervised");
-                    response.put("userStatus", "supervised_approval_pending");
-                    break;
-                case SUPERVISED_APPROVAL_DENIED:
-                    response.put("source", "supervised");
-                    response.put("userStatus", "supervised_approval_denied");
-                    break;
-                default:
-                    response.put("source", JSONObject.NULL);
-                    response.put("userStatus", "unknown");
-                    break;
-            }
-        } else {
-            response.put("source", JSONObject.NULL);
-            response.put("userStatus", "unknown");
-        }
-
-        // Android doesn't have parental controls in the same way, use empty array for compatibility
-        response.put("parentalControls", new JSONArray());
-
-        return response;
+     * Send latency histograms and counters collected since startup or the last reset
+     * Pass true as the first argument to reset everything as it is read.
+     */
+    private void getMetrics(JSONArray args, CallbackContext callbackContext) {
+        boolean reset = args.optBoolean(0, false);
+        callbackContext.sendPluginResult(
+            new RawJsonPluginResult(PluginResult.Status.OK, metrics.snapshot(reset, executor)));
     }
 
     /**
      * Handle Age Signals API errors
      */
-    private void handleAgeSignalsError(Exception e, CallbackContext callbackContext) {
-        String errorCode = "unknown";
-        String message = e.getMessage();
-        boolean retryable = false;
-
-        if (e instanceof AgeSignalsException) {
-            AgeSignalsException ageException = (AgeSignalsException) e;
-            int code = ageException.getErrorCode();
-
-            switch (code) {
-                case -1: // API_NOT_AVAILABLE
-                    errorCode = "api_not_available";
-                    message = "Play Store app is too old. Please update.";
-                    retryable = true;
-                    break;
-                case -2: // PLAY_STORE_NOT_FOUND
-                    errorCode = "play_store_not_found";
-                    message = "Google Play Store is not installed.";
-                    retryable = true;
-                    break;
-                case -3: // NETWORK_ERROR
-                    errorCode = "network_error";
-                    message = "No network connection available.";
-                    retryable = true;
-                    break;
-                case -4: // PLAY_SERVICES_NOT_FOUND
-                    errorCode = "play_services_not_found";
-                    message = "Google Play Services is not available.";
-                    retryable = true;
-                    break;
-                case -5: // CANNOT_BIND_TO_SERVICE
-                    errorCode = "service_binding_failed";
-                    message = "Failed to bind to the service.";
-                    retryable = true;
-                    break;
-                case -6: // PLAY_STORE_VERSION_OUTDATED
-                    errorCode = "play_store_outdated";
-                    message = "Google Play Store needs to be updated.";
-                    retryable = true;
-                    break;
-                case -7: // PLAY_SERVICES_VERSION_OUTDATED
-                    errorCode = "play_services_outdated";
-                    message = "Google Play Services needs to be updated.";
-                    retryable = true;
-                    break;
-                case -8: // CLIENT_TRANSIENT_ERROR
-                    errorCode = "transient_error";
-                    message = "A temporary error occurred. Please try again.";
-                    retryable = true;
-                    break;
-                case -9: // APP_NOT_OWNED
-                    errorCode = "app_not_owned";
-                    message = "App was not installed from Google Play.";
-                    retryable = false;
-                    break;
-                case -100: // INTERNAL_ERROR
-                    errorCode = "internal_error";
-                    message = "An internal error occurred.";
-                    retryable = false;
-                    break;
-                default:
-                    errorCode = "unknown";
-                    message = "Unknown error: " + code;
-                    retryable = false;
-            }
-        }
-
-        try {
-            JSONObject error = new JSONObject();
-            error.put("error", errorCode);
-            error.put("message", message);
-            error.put("retryable", retryable);
-            callbackContext.error(error);
-        } catch (JSONException je) {
-            callbackContext.error("Error: " + message);
-        }
+    private void handleAgeSignalsError(Exception e, int attempts, CallbackContext callbackContext) {
+        // Play error codes map to shared, pre-serialized payloads unless lastKnown is opted into
+        metrics.recordError(e instanceof AgeSignalsProviderException
+            ? AgeSignalsErrors.indexOf(((AgeSignalsProviderException) e).getErrorCode())
+            : AgeSignalsErrors.UNKNOWN_INDEX);
+        send(callbackContext, AgeSignalsErrors.resultFor(e, attempts, errorLastKnown ? cache.getLastKnown() : null));
     }
 
     /**
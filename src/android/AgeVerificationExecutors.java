@@ -0,0 +1,52 @@
+package com.anthropic.ageverification;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Process-wide background threads shared by the plugin's timers
+ */
+final class AgeVerificationExecutors {
+
+    private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "AgeVerification-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final QueueTimedExecutor CALLBACKS = new QueueTimedExecutor("AgeVerification-callbacks");
+
+    private static final PrioritizedExecutor PLUGIN = new PrioritizedExecutor("AgeVerification-worker", 2);
+
+    static {
+        // Deadlines are usually cancelled; don't keep their callbacks queued until they expire
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    private AgeVerificationExecutors() {
+    }
+
+    /**
+     * Single daemon thread for delayed work such as retries and deadlines. Tasks must be short
+     * and must not block; anything heavier should hop to another executor.
+     */
+    static ScheduledExecutorService scheduler() {
+        return SCHEDULER;
+    }
+
+    /**
+     * Low-priority daemon thread that receives Play task results and builds responses, keeping
+     * that work off the main thread. Records how long each result queued for it.
+     */
+    static QueueTimedExecutor callbacks() {
+        return CALLBACKS;
+    }
+
+    /**
+     * The plugin's own bounded pool, with a lane for work callers wait on and a lane for
+     * background refreshes
+     */
+    static PrioritizedExecutor plugin() {
+        return PLUGIN;
+    }
+}
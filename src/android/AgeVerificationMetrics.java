@@ -0,0 +1,145 @@
+package com.anthropic.ageverification;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Process-wide counters and latency histograms for the plugin
+ * Recording is lock-free and allocation-free so it can sit on every call without distorting the
+ * latencies it measures; only building a snapshot allocates.
+ */
+final class AgeVerificationMetrics {
+
+    // Actions with a latency histogram, indexed by these constants
+    static final int ACTION_REQUEST_AGE_RANGE = 0;
+    static final int ACTION_IS_USER_ABOVE_AGE = 1;
+    static final int ACTION_IS_USER_ABOVE_AGES = 2;
+    static final int ACTION_FILTER_BY_MINIMUM_AGE = 3;
+    static final int ACTION_CHECK_AGE_SIGNALS = 4;
+    static final int ACTION_COUNT = 5;
+
+    private static final String[] ACTION_NAMES = {
+        "requestAgeRange",
+        "isUserAboveAge",
+        "isUserAboveAges",
+        "filterByMinimumAge",
+        "checkAgeSignals"
+    };
+
+    private final LatencyHistogram[] actionLatencies = new LatencyHistogram[ACTION_NAMES.length];
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram callbacks = new LatencyHistogram();
+    private final LatencyHistogram mainThreadCallbacks = new LatencyHistogram();
+    // Indexed by AgeSignalsErrors.indexOf
+    private final AtomicLongArray errors = new AtomicLongArray(AgeSignalsErrors.INDEX_COUNT);
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    /**
+     * JavaScript action name for an action index
+     */
+    static String actionName(int action) {
+        return ACTION_NAMES[action];
+    }
+
+    AgeVerificationMetrics() {
+        for (int i = 0; i < actionLatencies.length; i++) {
+            actionLatencies[i] = new LatencyHistogram();
+        }
+    }
+
+    /**
+     * Record the time from a call arriving to its answer being sent
+     */
+    void recordLatency(int action, long latencyMs) {
+        actionLatencies[action].record(latencyMs);
+    }
+
+    /**
+     * Record how long a request waited for an executor thread
+     */
+    void recordQueueWait(long waitMs) {
+        queueWait.record(waitMs);
+    }
+
+    /**
+     * Record the time spent processing a provider result, including building and sending responses
+     * @param onMainThread Whether it ran on the main thread, where it competes with rendering
+     */
+    void recordCallback(long durationMs, boolean onMainThread) {
+        callbacks.record(durationMs);
+        if (onMainThread) {
+            mainThreadCallbacks.record(durationMs);
+        }
+    }
+
+    /**
+     * Record an error answered through the pre-serialized error table
+     */
+    void recordError(int errorIndex) {
+        errors.incrementAndGet(errorIndex);
+    }
+
+    /**
+     * Record where a successful answer came from
+     */
+    void recordOrigin(AgeSignalsFetcher.Origin origin) {
+        switch (origin) {
+            case CACHE:
+                cacheHits.incrementAndGet();
+                break;
+            case RESTORED:
+                staleHits.incrementAndGet();
+                break;
+            default:
+                cacheMisses.incrementAndGet();
+                break;
+        }
+    }
+
+    /**
+     * Serialize all metrics as a compact JSON object
+     * @param reset Whether to clear each value as it is read
+     * @param executor The plugin executor whose queue depths and wait times are included
+     */
+    String snapshot(boolean reset, PrioritizedExecutor executor) {
+        JsonResponseWriter writer = JsonResponseWriter.obtain().beginObject();
+
+        writer.name("actions").beginObject();
+        for (int i = 0; i < actionLatencies.length; i++) {
+            writer.name(ACTION_NAMES[i]);
+            actionLatencies[i].writeTo(writer, reset);
+        }
+        writer.endObject();
+
+        // Non-zero counts only, keyed by the cross-platform error code
+        writer.name("errors").beginObject();
+        for (int i = 0; i < AgeSignalsErrors.INDEX_COUNT; i++) {
+            long count = reset ? errors.getAndSet(i, 0) : errors.get(i);
+            if (count != 0) {
+                writer.field(AgeSignalsErrors.errorCodeAt(i), count);
+            }
+        }
+        writer.endObject();
+
+        writer.name("cache").beginObject()
+            .field("hits", reset ? cacheHits.getAndSet(0) : cacheHits.get())
+            .field("staleHits", reset ? staleHits.getAndSet(0) : staleHits.get())
+            .field("misses", reset ? cacheMisses.getAndSet(0) : cacheMisses.get())
+            .endObject();
+
+        writer.name("queueWait");
+        queueWait.writeTo(writer, reset);
+
+        writer.name("callbacks");
+        callbacks.writeTo(writer, reset);
+        writer.name("mainThreadCallbacks");
+        mainThreadCallbacks.writeTo(writer, reset);
+
+        writer.name("executor");
+        executor.writeTo(writer, reset);
+
+        return writer.endObject().toJson();
+    }
+}
@@ -0,0 +1,77 @@
+package com.anthropic.ageverification;
+
+import android.os.Build;
+import android.os.Trace;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Named android.os.Trace sections for system traces (Perfetto, systrace)
+ * Off by default; when disabled every call is a single volatile read. begin methods report
+ * whether they opened a section so the matching end stays balanced even if tracing is toggled.
+ */
+final class AgeVerificationTrace {
+
+    static final String INIT = "AgeVerification#init";
+    static final String EXECUTE = "AgeVerification#execute";
+    // Time in the plugin executor's lanes, from tryExecute until a worker starts the task
+    static final String QUEUE_WAIT = "AgeVerification#queueWait";
+    // Time a Play result waits for the callback thread
+    static final String CALLBACK_QUEUE_WAIT = "AgeVerification#callbackQueueWait";
+    static final String PLAY_TASK = "AgeVerification#playTask";
+    static final String CALLBACK = "AgeVerification#callback";
+    static final String BUILD_RESPONSE = "AgeVerification#buildResponse";
+    static final String SEND = "AgeVerification#send";
+
+    private static volatile boolean enabled;
+    // Async cookies; 0 is reserved for "not traced"
+    private static final AtomicInteger nextCookie = new AtomicInteger(1);
+
+    private AgeVerificationTrace() {
+    }
+
+    static void setEnabled(boolean enabled) {
+        AgeVerificationTrace.enabled = enabled;
+    }
+
+    /**
+     * Open a section on the current thread
+     * @return Whether a section was opened; pass to end
+     */
+    static boolean begin(String name) {
+        if (!enabled) {
+            return false;
+        }
+        Trace.beginSection(name);
+        return true;
+    }
+
+    static void end(boolean begun) {
+        if (begun) {
+            Trace.endSection();
+        }
+    }
+
+    /**
+     * Open an async slice that may end on another thread. Requires API 29; older devices only get
+     * the synchronous sections.
+     * @return Cookie identifying the slice, or 0 if none was opened
+     */
+    static int beginAsync(String name) {
+        if (!enabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.Q) {
+            return 0;
+        }
+        int cookie = nextCookie.getAndIncrement();
+        if (cookie == 0) {
+            cookie = nextCookie.getAndIncrement();
+        }
+        Trace.beginAsyncSection(name, cookie);
+        return cookie;
+    }
+
+    static void endAsync(String name, int cookie) {
+        if (cookie != 0 && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            Trace.endAsyncSection(name, cookie);
+        }
+    }
+}
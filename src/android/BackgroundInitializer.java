@@ -0,0 +1,128 @@
+package com.anthropic.ageverification;
+
+import android.os.SystemClock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Constructs a value on a background executor and hands it to callers once it is ready
+ * Callers never block: work submitted before construction finishes is queued and run on
+ * completion. The outcome is published as one immutable Status, so readers on any thread see
+ * the state, value and error together without locking.
+ */
+final class BackgroundInitializer<T> {
+
+    enum State {
+        INITIALIZING,
+        READY,
+        FAILED
+    }
+
+    /**
+     * Creates the value; runs on the background executor
+     */
+    interface Factory<T> {
+        T create() throws Exception;
+    }
+
+    /**
+     * Receives the value once construction has finished
+     */
+    interface Callback<T> {
+        void onReady(T value);
+        void onFailed(Exception error);
+    }
+
+    /**
+     * Consistent view of construction progress
+     */
+    static final class Status<T> {
+        final State state;
+        /** The constructed value, or null while initializing or after a failure */
+        final T value;
+        /** The construction failure, or null */
+        final Exception error;
+        /** How long construction took, or -1 while still initializing */
+        final long durationMs;
+
+        Status(State state, T value, Exception error, long durationMs) {
+            this.state = state;
+            this.value = value;
+            this.error = error;
+            this.durationMs = durationMs;
+        }
+    }
+
+    private final Object lock = new Object();
+    // Guarded by lock; null once construction has finished
+    private List<Callback<T>> pending = new ArrayList<>();
+    private final AtomicReference<Status<T>> status =
+        new AtomicReference<>(new Status<T>(State.INITIALIZING, null, null, -1));
+
+    /**
+     * Start construction on the given executor
+     */
+    void start(Factory<T> factory, Executor executor) {
+        executor.execute(() -> {
+            long startedAt = SystemClock.elapsedRealtime();
+            T created = null;
+            Exception failure = null;
+            try {
+                created = factory.create();
+            } catch (Exception e) {
+                failure = e;
+            }
+            Status<T> done = new Status<>(failure == null ? State.READY : State.FAILED, created, failure,
+                SystemClock.elapsedRealtime() - startedAt);
+
+            List<Callback<T>> waiting;
+            synchronized (lock) {
+                // Construction runs once; a second start must not replace the first outcome
+                if (pending == null) {
+                    return;
+                }
+                status.set(done);
+                waiting = pending;
+                pending = null;
+            }
+            for (Callback<T> callback : waiting) {
+                dispatch(done, callback);
+            }
+        });
+    }
+
+    /**
+     * Run the callback now if construction has finished, otherwise once it does
+     */
+    void whenReady(Callback<T> callback) {
+        synchronized (lock) {
+            if (pending != null) {
+                pending.add(callback);
+                return;
+            }
+        }
+        dispatch(status.get(), callback);
+    }
+
+    /**
+     * The current status; read it once when several of its fields are needed together
+     */
+    Status<T> getStatus() {
+        return status.get();
+    }
+
+    State getState() {
+        return status.get().state;
+    }
+
+    private static <T> void dispatch(Status<T> done, Callback<T> callback) {
+        if (done.state == State.READY) {
+            callback.onReady(done.value);
+        } else {
+            callback.onFailed(done.error);
+        }
+    }
+}
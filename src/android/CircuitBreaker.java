@@ -0,0 +1,266 @@
+package com.anthropic.ageverification;
+
+import android.os.SystemClock;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Circuit breaker in front of the age signals provider, keyed by error class
+ * After enough consecutive failures of one class the breaker for that class opens and calls fail
+ * fast with the last error instead of making a binder round trip. Once the cool-down has passed,
+ * a single probe is let through; its outcome closes or re-opens the breaker.
+ */
+final class CircuitBreaker {
+
+    static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    static final int DEFAULT_COOLDOWN_MS = 30 * 1000;
+
+    /**
+     * Groups of failures that tend to persist together
+     */
+    enum ErrorClass {
+        /** Play Store or Play Services missing, outdated or unusable for this app */
+        UNAVAILABLE,
+        /** Network, binding and other errors that usually clear on their own */
+        TRANSIENT
+    }
+
+    enum State {
+        CLOSED,
+        OPEN,
+        /** A single probe is in flight after the cool-down */
+        HALF_OPEN
+    }
+
+    /**
+     * Immutable breaker state; transitions replace it with compare-and-set
+     */
+    private static final class Status {
+        final State state;
+        final int consecutiveFailures;
+        // SystemClock.elapsedRealtime() of the last transition into OPEN or HALF_OPEN
+        final long since;
+        final Exception lastError;
+
+        Status(State state, int consecutiveFailures, long since, Exception lastError) {
+            this.state = state;
+            this.consecutiveFailures = consecutiveFailures;
+            this.since = since;
+            this.lastError = lastError;
+        }
+    }
+
+    private static final Status CLOSED_STATUS = new Status(State.CLOSED, 0, 0, null);
+
+    /**
+     * Breaker for a single error class
+     */
+    private final class Breaker {
+        final AtomicReference<Status> status = new AtomicReference<>(CLOSED_STATUS);
+        final AtomicLong opens = new AtomicLong();
+        final AtomicLong halfOpens = new AtomicLong();
+        final AtomicLong closes = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+
+        boolean isRejecting(long now) {
+            Status current = status.get();
+            return current.state != State.CLOSED && now - current.since < cooldownMs;
+        }
+
+        Exception acquire(long now) {
+            while (true) {
+                Status current = status.get();
+                if (current.state == State.CLOSED) {
+                    return null;
+                }
+                // Cooling down, or a probe is already in flight; a probe that never reported back
+                // is given up on after another cool-down
+                if (now - current.since < cooldownMs) {
+                    rejected.incrementAndGet();
+                    return current.lastError;
+                }
+                Status probe = new Status(State.HALF_OPEN, current.consecutiveFailures, now, current.lastError);
+                if (status.compareAndSet(current, probe)) {
+                    halfOpens.incrementAndGet();
+                    return null;
+                }
+            }
+        }
+
+        void onSuccess() {
+            while (true) {
+                Status current = status.get();
+                if (current == CLOSED_STATUS) {
+                    return;
+                }
+                if (status.compareAndSet(current, CLOSED_STATUS)) {
+                    if (current.state != State.CLOSED) {
+                        closes.incrementAndGet();
+                    }
+                    return;
+                }
+            }
+        }
+
+        void onFailure(Exception e, long now) {
+            while (true) {
+                Status current = status.get();
+                int failures = current.consecutiveFailures + 1;
+                boolean open = current.state != State.CLOSED || failures >= failureThreshold;
+                Status next = open
+                    ? new Status(State.OPEN, failures, now, e)
+                    : new Status(State.CLOSED, failures, 0, e);
+                if (status.compareAndSet(current, next)) {
+                    if (open && current.state != State.OPEN) {
+                        opens.incrementAndGet();
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    private final Breaker[] breakers;
+
+    private volatile int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+    private volatile long cooldownMs = DEFAULT_COOLDOWN_MS;
+
+    CircuitBreaker() {
+        breakers = new Breaker[ErrorClass.values().length];
+        for (int i = 0; i < breakers.length; i++) {
+            breakers[i] = new Breaker();
+        }
+    }
+
+    /**
+     * Called on every plugin initialization. Breakers keep their state unless the settings change,
+     * so reloading the WebView during an outage doesn't send full traffic at a failing service.
+     * @param failureThreshold Consecutive failures of one class that open its breaker; 0 disables
+     * @param cooldownMs How long an open breaker fails fast before letting a probe through
+     */
+    synchronized void configure(int failureThreshold, long cooldownMs) {
+        int threshold = Math.max(0, failureThreshold);
+        long cooldown = Math.max(0, cooldownMs);
+        if (threshold == this.failureThreshold && cooldown == this.cooldownMs) {
+            return;
+        }
+        this.failureThreshold = threshold;
+        this.cooldownMs = cooldown;
+        for (Breaker breaker : breakers) {
+            breaker.status.set(CLOSED_STATUS);
+        }
+    }
+
+    /**
+     * Error class of a provider failure. Failures without a Play error code count as transient.
+     */
+    static ErrorClass classify(Exception e) {
+        if (!(e instanceof AgeSignalsProviderException)) {
+            return ErrorClass.TRANSIENT;
+        }
+        switch (((AgeSignalsProviderException) e).getErrorCode()) {
+            case -1: // API_NOT_AVAILABLE
+            case -2: // PLAY_STORE_NOT_FOUND
+            case -4: // PLAY_SERVICES_NOT_FOUND
+            case -6: // PLAY_STORE_VERSION_OUTDATED
+            case -7: // PLAY_SERVICES_VERSION_OUTDATED
+            case -9: // APP_NOT_OWNED
+                return ErrorClass.UNAVAILABLE;
+            default:
+                return ErrorClass.TRANSIENT;
+        }
+    }
+
+    /**
+     * Ask permission to call the provider
+     * @return null if the call may proceed, otherwise the cached error to fail fast with
+     */
+    Exception acquire() {
+        if (failureThreshold <= 0) {
+            return null;
+        }
+        long now = SystemClock.elapsedRealtime();
+        // Reject on any cooling-down breaker before another breaker commits to a probe
+        for (Breaker breaker : breakers) {
+            if (breaker.isRejecting(now)) {
+                breaker.rejected.incrementAndGet();
+                return breaker.status.get().lastError;
+            }
+        }
+        for (Breaker breaker : breakers) {
+            Exception rejection = breaker.acquire(now);
+            if (rejection != null) {
+                return rejection;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Record a successful provider call, closing every breaker
+     */
+    void onSuccess() {
+        for (Breaker breaker : breakers) {
+            breaker.onSuccess();
+        }
+    }
+
+    /**
+     * Record a failed provider call. A failure of one class counts as a success for the others,
+     * since the provider got far enough to fail differently.
+     */
+    void onFailure(Exception e) {
+        ErrorClass errorClass = classify(e);
+        long now = SystemClock.elapsedRealtime();
+        for (ErrorClass candidate : ErrorClass.values()) {
+            if (candidate == errorClass) {
+                breakers[candidate.ordinal()].onFailure(e, now);
+            } else {
+                breakers[candidate.ordinal()].onSuccess();
+            }
+        }
+    }
+
+    /**
+     * Whether calls currently reach the provider without counting as a probe
+     */
+    boolean isClosed() {
+        if (failureThreshold <= 0) {
+            return true;
+        }
+        for (Breaker breaker : breakers) {
+            if (breaker.status.get().state != State.CLOSED) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    State getState(ErrorClass errorClass) {
+        return breakers[errorClass.ordinal()].status.get().state;
+    }
+
+    int getConsecutiveFailures(ErrorClass errorClass) {
+        return breakers[errorClass.ordinal()].status.get().consecutiveFailures;
+    }
+
+    long getOpens(ErrorClass errorClass) {
+        return breakers[errorClass.ordinal()].opens.get();
+    }
+
+    long getHalfOpens(ErrorClass errorClass) {
+        return breakers[errorClass.ordinal()].halfOpens.get();
+    }
+
+    long getCloses(ErrorClass errorClass) {
+        return breakers[errorClass.ordinal()].closes.get();
+    }
+
+    /**
+     * Number of calls failed fast without reaching the provider
+     */
+    long getRejected(ErrorClass errorClass) {
+        return breakers[errorClass.ordinal()].rejected.get();
+    }
+}
@@ -0,0 +1,226 @@
+package com.anthropic.ageverification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.cordova.CordovaPreferences;
+
+/**
+ * Deterministic in-process AgeSignalsProvider for load testing the plugin without Google Play
+ * Replays a script of results and Play error codes with injected latency, so the whole request
+ * pipeline (cache, single-flight, error mapping, bridge) can run at high rates on any device.
+ *
+ * Configured through config.xml preferences:
+ * <ul>
+ *   <li>AgeVerificationFakeScript - comma-separated steps replayed in order, e.g.
+ *       "verified:18:,supervised:13:15,error:-3". A step is status:lower:upper with empty bounds
+ *       for null, or error:code.</li>
+ *   <li>AgeVerificationFakeLatency - "fixed:ms", "uniform:minMs:maxMs" or
+ *       "exponential:minMs:meanExtraMs"</li>
+ *   <li>AgeVerificationFakeErrorRate - probability (0-1) of replacing a step with an error</li>
+ *   <li>AgeVerificationFakeErrorCodes - codes drawn for injected errors, e.g. "-3,-5,-8"</li>
+ *   <li>AgeVerificationFakeSeed - random seed so runs are reproducible</li>
+ * </ul>
+ * The n-th request always gets the same step, latency and injected error for a given seed, however
+ * many threads call in. Results are never persisted, so switching back to Google Play can't serve
+ * scripted data from disk.
+ */
+final class FakeAgeSignalsProvider implements AgeSignalsProvider {
+
+    private static final String PREF_SCRIPT = "AgeVerificationFakeScript";
+    private static final String PREF_LATENCY = "AgeVerificationFakeLatency";
+    private static final String PREF_ERROR_RATE = "AgeVerificationFakeErrorRate";
+    private static final String PREF_ERROR_CODES = "AgeVerificationFakeErrorCodes";
+    private static final String PREF_SEED = "AgeVerificationFakeSeed";
+
+    private static final String DEFAULT_SCRIPT = "verified:18:";
+    private static final String DEFAULT_LATENCY = "fixed:0";
+    private static final String DEFAULT_ERROR_CODES = "-3,-5,-8";
+
+    // Random draws per request; each gets its own point in the counter-based sequence
+    private static final int DRAWS_PER_REQUEST = 3;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    /**
+     * One scripted outcome: either a result or a Play error code
+     */
+    static final class Step {
+        final AgeSignalsSnapshot.UserStatus userStatus;
+        final Integer ageLower;
+        final Integer ageUpper;
+        final int errorCode;
+
+        private Step(AgeSignalsSnapshot.UserStatus userStatus, Integer ageLower, Integer ageUpper, int errorCode) {
+            this.userStatus = userStatus;
+            this.ageLower = ageLower;
+            this.ageUpper = ageUpper;
+            this.errorCode = errorCode;
+        }
+
+        static Step result(AgeSignalsSnapshot.UserStatus userStatus, Integer ageLower, Integer ageUpper) {
+            return new Step(userStatus, ageLower, ageUpper, 0);
+        }
+
+        static Step error(int errorCode) {
+            return new Step(null, null, null, errorCode);
+        }
+    }
+
+    /**
+     * Injected latency model
+     */
+    enum LatencyModel {
+        FIXED,
+        UNIFORM,
+        EXPONENTIAL
+    }
+
+    private final Step[] script;
+    private final LatencyModel latencyModel;
+    private final long latencyA;
+    private final long latencyB;
+    private final double errorRate;
+    private final int[] errorCodes;
+    private final long seed;
+    // Request number; everything a request draws is derived from it and the seed
+    private final AtomicLong position = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private final Executor callbackExecutor;
+
+    /**
+     * @param script Outcomes replayed in order, wrapping around at the end
+     * @param latencyModel How latencyA/latencyB are interpreted: FIXED uses latencyA, UNIFORM draws
+     *                     from [latencyA, latencyB], EXPONENTIAL adds an exponential tail with mean
+     *                     latencyB to latencyA
+     * @param errorRate Probability of replacing a scripted step with a random error code
+     * @param errorCodes Codes drawn for injected errors
+     * @param seed Random seed
+     * @param scheduler Delays completions by the injected latency; tasks must be short
+     * @param callbackExecutor Runs completions, like the Play task listener executor
+     */
+    FakeAgeSignalsProvider(List<Step> script, LatencyModel latencyModel, long latencyA, long latencyB,
+                           double errorRate, int[] errorCodes, long seed, ScheduledExecutorService scheduler,
+                           Executor callbackExecutor) {
+        if (script.isEmpty()) {
+            throw new IllegalArgumentException("Fake script must contain at least one step");
+        }
+        this.script = script.toArray(new Step[0]);
+        this.latencyModel = latencyModel;
+        this.latencyA = latencyA;
+        this.latencyB = latencyB;
+        this.errorRate = errorRate;
+        this.errorCodes = errorCodes.length > 0 ? errorCodes : new int[]{-8};
+        this.seed = seed;
+        this.scheduler = scheduler;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Build a fake from config.xml preferences
+     * @throws IllegalArgumentException if a preference cannot be parsed
+     */
+    static FakeAgeSignalsProvider fromPreferences(CordovaPreferences preferences, ScheduledExecutorService scheduler,
+                                                  Executor callbackExecutor) {
+        List<Step> script = parseScript(preferences.getString(PREF_SCRIPT, DEFAULT_SCRIPT));
+
+        String[] latency = preferences.getString(PREF_LATENCY, DEFAULT_LATENCY).split(":");
+        LatencyModel latencyModel = LatencyModel.valueOf(latency[0].trim().toUpperCase(Locale.US));
+        long latencyA = latency.length > 1 ? Long.parseLong(latency[1].trim()) : 0;
+        long latencyB = latency.length > 2 ? Long.parseLong(latency[2].trim()) : latencyA;
+
+        double errorRate = Double.parseDouble(preferences.getString(PREF_ERROR_RATE, "0"));
+        int[] errorCodes = parseCodes(preferences.getString(PREF_ERROR_CODES, DEFAULT_ERROR_CODES));
+        long seed = Long.parseLong(preferences.getString(PREF_SEED, "0"));
+
+        return new FakeAgeSignalsProvider(script, latencyModel, latencyA, latencyB, errorRate, errorCodes, seed,
+            scheduler, callbackExecutor);
+    }
+
+    @Override
+    public void checkAgeSignals(Callback callback) {
+        long request = position.getAndIncrement();
+        Step step = script[(int) (request % script.length)];
+        long draw = request * DRAWS_PER_REQUEST;
+        long delayMs = latencyMs(uniform(draw));
+        int injectedCode = 0;
+        if (errorRate > 0 && uniform(draw + 1) < errorRate) {
+            injectedCode = errorCodes[(int) (uniform(draw + 2) * errorCodes.length)];
+        }
+
+        int errorCode = injectedCode != 0 ? injectedCode : step.errorCode;
+        Runnable completion = () -> {
+            if (errorCode != 0) {
+                callback.onFailure(new AgeSignalsProviderException(errorCode, "Fake error " + errorCode, null));
+            } else {
+                callback.onSuccess(new AgeSignalsSnapshot(step.userStatus, step.ageLower, step.ageUpper,
+                    null, null, System.currentTimeMillis()));
+            }
+        };
+
+        if (delayMs <= 0) {
+            callbackExecutor.execute(completion);
+        } else {
+            scheduler.schedule(() -> callbackExecutor.execute(completion), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private long latencyMs(double u) {
+        switch (latencyModel) {
+            case UNIFORM:
+                return latencyA + (long) (u * Math.max(0, latencyB - latencyA));
+            case EXPONENTIAL:
+                return latencyA + (long) (-Math.log(1 - u) * latencyB);
+            case FIXED:
+            default:
+                return latencyA;
+        }
+    }
+
+    /**
+     * The index-th value in [0, 1) of the seed's sequence (SplitMix64), with no shared state
+     */
+    private double uniform(long index) {
+        long z = seed + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * DOUBLE_UNIT;
+    }
+
+    static List<Step> parseScript(String script) {
+        List<Step> steps = new ArrayList<>();
+        for (String entry : script.split(",")) {
+            String[] parts = entry.trim().split(":", -1);
+            if (parts[0].equalsIgnoreCase("error")) {
+                steps.add(Step.error(Integer.parseInt(parts[1].trim())));
+            } else {
+                AgeSignalsSnapshot.UserStatus status =
+                    AgeSignalsSnapshot.UserStatus.valueOf(parts[0].trim().toUpperCase(Locale.US));
+                Integer ageLower = parts.length > 1 ? parseBound(parts[1]) : null;
+                Integer ageUpper = parts.length > 2 ? parseBound(parts[2]) : null;
+                steps.add(Step.result(status, ageLower, ageUpper));
+            }
+        }
+        return steps;
+    }
+
+    private static Integer parseBound(String value) {
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : Integer.valueOf(trimmed);
+    }
+
+    private static int[] parseCodes(String codes) {
+        String[] parts = codes.split(",");
+        int[] parsed = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            parsed[i] = Integer.parseInt(parts[i].trim());
+        }
+        return parsed;
+    }
+}
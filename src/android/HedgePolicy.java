@@ -0,0 +1,145 @@
+package com.anthropic.ageverification;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Decides when a slow age signals request gets a hedge request alongside it
+ * The hedge delay is a percentile of recently observed request latencies, so only the slowest
+ * requests are hedged. A token budget caps hedges to a percentage of regular requests.
+ */
+final class HedgePolicy {
+
+    static final int DEFAULT_PERCENTILE = 95;
+    static final int DEFAULT_BUDGET_PERCENT = 5;
+
+    // Latencies kept for the percentile, and how many are needed before hedging starts
+    private static final int SAMPLE_CAPACITY = 128;
+    private static final int MIN_SAMPLES = 20;
+    // The percentile is recomputed after this many new samples rather than on every request
+    private static final int RECOMPUTE_INTERVAL = 4;
+    // Hedges allowed back to back once the budget has filled
+    private static final int BUDGET_BURST = 5;
+
+    private final AtomicLongArray samples = new AtomicLongArray(SAMPLE_CAPACITY);
+    private final AtomicInteger sampleCount = new AtomicInteger();
+    private final TokenBudget budget = new TokenBudget(BUDGET_BURST, DEFAULT_BUDGET_PERCENT / 100.0);
+
+    private volatile boolean enabled;
+    private volatile int percentile = DEFAULT_PERCENTILE;
+    // Guarded by this
+    private int budgetPercent = DEFAULT_BUDGET_PERCENT;
+    // -1 until MIN_SAMPLES latencies have been recorded
+    private volatile long hedgeDelayMs = -1;
+    // Reused for sorting; guarded by the recomputeHedgeDelay lock
+    private final long[] sortBuffer = new long[SAMPLE_CAPACITY];
+
+    private final AtomicLong hedgesSent = new AtomicLong();
+    private final AtomicLong hedgesWon = new AtomicLong();
+    private final AtomicLong hedgesDeniedByBudget = new AtomicLong();
+
+    /**
+     * Called on every plugin initialization. Latency samples are always kept, and the budget is
+     * only refilled when its rate changes, so reloading the WebView doesn't grant fresh hedges.
+     * @param enabled Whether hedging is on; it is off by default
+     * @param percentile Latency percentile (50-99) after which a request is hedged
+     * @param budgetPercent Hedges allowed per 100 regular requests
+     */
+    synchronized void configure(boolean enabled, int percentile, int budgetPercent) {
+        int clampedPercentile = Math.max(50, Math.min(99, percentile));
+        int clampedBudgetPercent = Math.max(0, budgetPercent);
+        if (enabled == this.enabled && clampedPercentile == this.percentile
+                && clampedBudgetPercent == this.budgetPercent) {
+            return;
+        }
+        this.enabled = enabled;
+        this.percentile = clampedPercentile;
+        if (clampedBudgetPercent != this.budgetPercent) {
+            this.budgetPercent = clampedBudgetPercent;
+            budget.configure(BUDGET_BURST, clampedBudgetPercent / 100.0);
+        }
+        recomputeHedgeDelay();
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Record the latency of a completed provider request
+     */
+    void recordLatency(long latencyMs) {
+        // Masking keeps the ring position correct after the counter wraps
+        int index = sampleCount.getAndIncrement() & Integer.MAX_VALUE;
+        samples.set(index % SAMPLE_CAPACITY, latencyMs);
+        if ((index + 1) % RECOMPUTE_INTERVAL == 0) {
+            recomputeHedgeDelay();
+        }
+    }
+
+    /**
+     * Credit the hedge budget for a regular request
+     */
+    void onRequestStarted() {
+        budget.deposit();
+    }
+
+    /**
+     * Delay after which a request still outstanding should be hedged
+     * @return Milliseconds, or -1 if hedging is off or there are too few samples yet
+     */
+    long getHedgeDelayMs() {
+        return enabled ? hedgeDelayMs : -1;
+    }
+
+    /**
+     * Recompute the cached percentile from the current samples, without allocating
+     */
+    private synchronized void recomputeHedgeDelay() {
+        int recorded = sampleCount.get();
+        int count = recorded < 0 || recorded > SAMPLE_CAPACITY ? SAMPLE_CAPACITY : recorded;
+        if (count < MIN_SAMPLES) {
+            hedgeDelayMs = -1;
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            sortBuffer[i] = samples.get(i);
+        }
+        Arrays.sort(sortBuffer, 0, count);
+        hedgeDelayMs = sortBuffer[Math.min(count - 1, (count * percentile) / 100)];
+    }
+
+    /**
+     * Spend budget for a hedge that is about to be sent
+     * @return false if the budget is exhausted and the hedge must be skipped
+     */
+    boolean tryAcquire() {
+        if (!budget.tryWithdraw()) {
+            hedgesDeniedByBudget.incrementAndGet();
+            return false;
+        }
+        hedgesSent.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Record that a hedge answered before the request it was hedging
+     */
+    void onHedgeWon() {
+        hedgesWon.incrementAndGet();
+    }
+
+    long getHedgesSent() {
+        return hedgesSent.get();
+    }
+
+    long getHedgesWon() {
+        return hedgesWon.get();
+    }
+
+    long getHedgesDeniedByBudget() {
+        return hedgesDeniedByBudget.get();
+    }
+}
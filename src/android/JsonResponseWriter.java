@@ -0,0 +1,189 @@
+package com.anthropic.ageverification;
+
+/**
+ * Streaming JSON writer for the plugin's fixed response shapes
+ * Writes straight into a per-thread character buffer that is reused across calls, so building a
+ * response allocates only the final String handed to Cordova. Field names are written verbatim
+ * and must not need escaping; string values are escaped.
+ */
+final class JsonResponseWriter {
+
+    private static final int INITIAL_CAPACITY = 512;
+    // Buffers grown past this by an unusually large response are released after use
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<JsonResponseWriter> POOL = new ThreadLocal<JsonResponseWriter>() {
+        @Override
+        protected JsonResponseWriter initialValue() {
+            return new JsonResponseWriter();
+        }
+    };
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder buffer = new StringBuilder(INITIAL_CAPACITY);
+    private boolean needsComma;
+
+    private JsonResponseWriter() {
+    }
+
+    /**
+     * Get this thread's writer, cleared and ready for a new response
+     */
+    static JsonResponseWriter obtain() {
+        JsonResponseWriter writer = POOL.get();
+        writer.buffer.setLength(0);
+        writer.needsComma = false;
+        return writer;
+    }
+
+    JsonResponseWriter beginObject() {
+        separate();
+        buffer.append('{');
+        needsComma = false;
+        return this;
+    }
+
+    JsonResponseWriter endObject() {
+        buffer.append('}');
+        needsComma = true;
+        return this;
+    }
+
+    JsonResponseWriter beginArray() {
+        separate();
+        buffer.append('[');
+        needsComma = false;
+        return this;
+    }
+
+    JsonResponseWriter endArray() {
+        buffer.append(']');
+        needsComma = true;
+        return this;
+    }
+
+    JsonResponseWriter name(String name) {
+        separate();
+        buffer.append('"').append(name).append("\":");
+        needsComma = false;
+        return this;
+    }
+
+    JsonResponseWriter value(int value) {
+        separate();
+        buffer.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    JsonResponseWriter value(long value) {
+        separate();
+        buffer.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    JsonResponseWriter value(boolean value) {
+        separate();
+        buffer.append(value);
+        needsComma = true;
+        return this;
+    }
+
+    JsonResponseWriter value(Integer value) {
+        return value != null ? value(value.intValue()) : nullValue();
+    }
+
+    JsonResponseWriter value(String value) {
+        if (value == null) {
+            return nullValue();
+        }
+        separate();
+        appendQuoted(value);
+        needsComma = true;
+        return this;
+    }
+
+    JsonResponseWriter nullValue() {
+        separate();
+        buffer.append("null");
+        needsComma = true;
+        return this;
+    }
+
+    JsonResponseWriter field(String name, int value) {
+        return name(name).value(value);
+    }
+
+    JsonResponseWriter field(String name, long value) {
+        return name(name).value(value);
+    }
+
+    JsonResponseWriter field(String name, boolean value) {
+        return name(name).value(value);
+    }
+
+    JsonResponseWriter field(String name, Integer value) {
+        return name(name).value(value);
+    }
+
+    JsonResponseWriter field(String name, String value) {
+        return name(name).value(value);
+    }
+
+    /**
+     * Return the JSON written so far and release an oversized buffer
+     */
+    String toJson() {
+        String json = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_CAPACITY) {
+            buffer.setLength(0);
+            buffer.trimToSize();
+            buffer.ensureCapacity(INITIAL_CAPACITY);
+        }
+        return json;
+    }
+
+    private void separate() {
+        if (needsComma) {
+            buffer.append(',');
+        }
+    }
+
+    private void appendQuoted(String value) {
+        buffer.append('"');
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    buffer.append("\\\"");
+                    break;
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                default:
+                    // Control characters are invalid in JSON; U+2028/U+2029 break JavaScript string literals
+                    if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                        buffer.append("\\u")
+                            .append(HEX[(c >> 12) & 0xF])
+                            .append(HEX[(c >> 8) & 0xF])
+                            .append(HEX[(c >> 4) & 0xF])
+                            .append(HEX[c & 0xF]);
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+        buffer.append('"');
+    }
+}
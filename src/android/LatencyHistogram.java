@@ -0,0 +1,124 @@
+package com.anthropic.ageverification;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket log-linear latency histogram in milliseconds
+ * Each power of two is split into four linear sub-buckets, so bucket width stays within 25% of the
+ * value from 4 ms up to about 17 minutes; anything longer lands in an overflow bucket. Recording is
+ * a few atomic increments and never allocates.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    // Values below SUB_BUCKETS get one bucket each; exponents above MAX_EXPONENT overflow
+    private static final int MAX_EXPONENT = 19;
+    static final int BUCKET_COUNT = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + 1;
+    private static final int OVERFLOW_BUCKET = BUCKET_COUNT - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong sumMs = new AtomicLong();
+    private final AtomicLong maxMs = new AtomicLong();
+
+    /**
+     * Bucket for a latency; negative values count as 0
+     */
+    static int bucketOf(long valueMs) {
+        if (valueMs < SUB_BUCKETS) {
+            return (int) Math.max(0, valueMs);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(valueMs);
+        if (exponent > MAX_EXPONENT) {
+            return OVERFLOW_BUCKET;
+        }
+        int subBucket = (int) (valueMs >> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Smallest latency that falls in a bucket
+     */
+    static long lowerBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        if (bucket >= OVERFLOW_BUCKET) {
+            return 1L << (MAX_EXPONENT + 1);
+        }
+        int offset = bucket - SUB_BUCKETS;
+        int exponent = offset / SUB_BUCKETS + SUB_BUCKET_BITS;
+        return (long) (SUB_BUCKETS + offset % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Largest latency that falls in a bucket; the overflow bucket reports its lower bound
+     */
+    static long upperBoundOf(int bucket) {
+        return bucket >= OVERFLOW_BUCKET ? lowerBoundOf(bucket) : lowerBoundOf(bucket + 1) - 1;
+    }
+
+    void record(long valueMs) {
+        long value = Math.max(0, valueMs);
+        buckets.incrementAndGet(bucketOf(value));
+        sumMs.addAndGet(value);
+        while (true) {
+            long currentMax = maxMs.get();
+            if (value <= currentMax || maxMs.compareAndSet(currentMax, value)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write count, sum, max, estimated percentiles and non-empty buckets as a JSON object
+     * @param reset Whether to clear each value as it is read, so no recording is lost between
+     *              reading and clearing
+     */
+    void writeTo(JsonResponseWriter writer, boolean reset) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = reset ? buckets.getAndSet(i, 0) : buckets.get(i);
+            total += snapshot[i];
+        }
+        long sum = reset ? sumMs.getAndSet(0) : sumMs.get();
+        long max = reset ? maxMs.getAndSet(0) : maxMs.get();
+
+        writer.beginObject()
+            .field("count", total)
+            .field("sumMs", sum)
+            .field("maxMs", max);
+        writePercentile(writer, "p50", snapshot, total, 50);
+        writePercentile(writer, "p90", snapshot, total, 90);
+        writePercentile(writer, "p99", snapshot, total, 99);
+
+        // Non-empty buckets only, as [lowerBoundMs, count] pairs
+        writer.name("buckets").beginArray();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (snapshot[i] != 0) {
+                writer.beginArray().value(lowerBoundOf(i)).value(snapshot[i]).endArray();
+            }
+        }
+        writer.endArray().endObject();
+    }
+
+    private static void writePercentile(JsonResponseWriter writer, String name, long[] snapshot, long total,
+                                        int percentile) {
+        if (total == 0) {
+            writer.name(name).nullValue();
+            return;
+        }
+        // Rank of the percentile, rounded up; reported as the upper bound of its bucket
+        long rank = (total * percentile + 99) / 100;
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                writer.field(name, upperBoundOf(i));
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.anthropic.ageverification;
+
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.cordova.CallbackContext;
+
+/**
+ * A JavaScript call waiting for its answer
+ * Whichever of the fetch result, the deadline and a cancellation arrives first settles the call;
+ * the others are dropped, so JavaScript never receives two answers. Settling releases the
+ * callback, so listeners still queued on a shared fetch don't keep a finished page reachable.
+ */
+final class PendingCall {
+
+    private final String requestId;
+    private final int generation;
+    private final Set<PendingCall> inFlight;
+    private final AtomicBoolean settled = new AtomicBoolean();
+    private volatile CallbackContext callbackContext;
+    private volatile ScheduledFuture<?> deadline;
+
+    /**
+     * @param requestId Id chosen by JavaScript for cancel, or null
+     * @param generation The page generation the call was made from
+     * @param inFlight Set the caller has added this call to; it is removed once settled
+     */
+    PendingCall(CallbackContext callbackContext, String requestId, int generation, Set<PendingCall> inFlight) {
+        this.callbackContext = callbackContext;
+        this.requestId = requestId;
+        this.generation = generation;
+        this.inFlight = inFlight;
+    }
+
+    String getRequestId() {
+        return requestId;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Attach the scheduled deadline so it can be cancelled once the call settles
+     */
+    void setDeadline(ScheduledFuture<?> deadline) {
+        this.deadline = deadline;
+        // The call may have settled before the deadline was attached
+        if (settled.get()) {
+            deadline.cancel(false);
+        }
+    }
+
+    /**
+     * Claim the right to answer the call
+     * @return the callback exactly once, after which the call no longer holds it; null if the
+     *     call was already answered or cancelled
+     */
+    CallbackContext settle() {
+        if (!settled.compareAndSet(false, true)) {
+            return null;
+        }
+        ScheduledFuture<?> pendingDeadline = deadline;
+        if (pendingDeadline != null) {
+            pendingDeadline.cancel(false);
+        }
+        inFlight.remove(this);
+        CallbackContext claimed = callbackContext;
+        callbackContext = null;
+        return claimed;
+    }
+}
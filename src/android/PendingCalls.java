@@ -0,0 +1,79 @@
+package com.anthropic.ageverification;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cordova.CallbackContext;
+
+/**
+ * The JavaScript calls of one WebView that are still waiting for an answer
+ * Each call is tagged with the page generation it was made from. A page reset drops the calls of
+ * the old page and a destroy drops them all, so nothing keeps a finished page's callbacks
+ * reachable once it can no longer receive answers.
+ */
+final class PendingCalls {
+
+    private final Set<PendingCall> inFlight = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    // Bumped on every page load so calls from a previous page can be told apart
+    private final AtomicInteger pageGeneration = new AtomicInteger();
+
+    /**
+     * Track a new call from the current page
+     * @param requestId Id chosen by JavaScript for cancel, or null
+     */
+    PendingCall register(CallbackContext callbackContext, String requestId) {
+        PendingCall call = new PendingCall(callbackContext, requestId, pageGeneration.get(), inFlight);
+        inFlight.add(call);
+        return call;
+    }
+
+    /**
+     * Settle the waiting call with the given request id
+     * @return its callback, to answer with a cancelled error, or null if no such call is waiting
+     */
+    CallbackContext cancel(String requestId) {
+        for (PendingCall call : inFlight) {
+            if (requestId.equals(call.getRequestId())) {
+                CallbackContext cancelled = call.settle();
+                if (cancelled != null) {
+                    return cancelled;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The page is navigating or reloading: drop its calls without answering them
+     */
+    void reset() {
+        dropThrough(pageGeneration.getAndIncrement());
+    }
+
+    /**
+     * The WebView is going away: drop every call without answering it
+     */
+    void clear() {
+        dropThrough(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Number of calls still waiting
+     */
+    int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * Settle every pending call from the given page generation or earlier without answering it
+     */
+    private void dropThrough(int lastGeneration) {
+        for (PendingCall call : inFlight) {
+            if (call.getGeneration() <= lastGeneration) {
+                call.settle();
+            }
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.anthropic.ageverification;
+
+import java.util.concurrent.Executor;
+
+import com.google.android.play.core.agesignals.AgeSignalsException;
+import com.google.android.play.core.agesignals.AgeSignalsManager;
+import com.google.android.play.core.agesignals.AgeSignalsRequest;
+import com.google.android.play.core.agesignals.AgeSignalsResult;
+import com.google.android.play.core.agesignals.AgeSignalsVerificationStatus;
+
+/**
+ * AgeSignalsProvider backed by Google Play's AgeSignalsManager
+ * Task listeners run on the given executor rather than the default main thread, so processing the
+ * result never competes with WebView rendering.
+ */
+final class PlayAgeSignalsProvider implements AgeSignalsProvider {
+
+    private final AgeSignalsManager ageSignalsManager;
+    private final Executor callbackExecutor;
+
+    PlayAgeSignalsProvider(AgeSignalsManager ageSignalsManager, Executor callbackExecutor) {
+        this.ageSignalsManager = ageSignalsManager;
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    @Override
+    public void checkAgeSignals(Callback callback) {
+        AgeSignalsRequest request = AgeSignalsRequest.builder().build();
+
+        ageSignalsManager.checkAgeSignals(request)
+            .addOnSuccessListener(callbackExecutor, result -> {
+                callback.onSuccess(toSnapshot(result, System.currentTimeMillis()));
+            })
+            .addOnFailureListener(callbackExecutor, e -> {
+                if (e instanceof AgeSignalsException) {
+                    callback.onFailure(new AgeSignalsProviderException(
+                        ((AgeSignalsException) e).getErrorCode(), e.getMessage(), e));
+                } else {
+                    callback.onFailure(e);
+                }
+            });
+    }
+
+    /**
+     * Copy the reported fields out of a Play result
+     */
+    static AgeSignalsSnapshot toSnapshot(AgeSignalsResult result, long fetchedAtMillis) {
+        return new AgeSignalsSnapshot(
+            toUserStatus(result.userStatus()),
+            result.ageLower(),
+            result.ageUpper(),
+            result.installId(),
+            result.mostRecentApprovalDate() != null ? result.mostRecentApprovalDate().toString() : null,
+            fetchedAtMillis);
+    }
+
+    private static AgeSignalsSnapshot.UserStatus toUserStatus(AgeSignalsVerificationStatus status) {
+        if (status == null) {
+            return AgeSignalsSnapshot.UserStatus.UNKNOWN;
+        }
+        switch (status) {
+            case VERIFIED:
+                return AgeSignalsSnapshot.UserStatus.VERIFIED;
+            case SUPERVISED:
+                return AgeSignalsSnapshot.UserStatus.SUPERVISED;
+            case SUPERVISED_APPROVAL_PENDING:
+                return AgeSignalsSnapshot.UserStatus.SUPERVISED_APPROVAL_PENDING;
+            case SUPERVISED_APPROVAL_DENIED:
+                return AgeSignalsSnapshot.UserStatus.SUPERVISED_APPROVAL_DENIED;
+            default:
+                return AgeSignalsSnapshot.UserStatus.UNKNOWN;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.anthropic.ageverification;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Small bounded thread pool with two priority lanes, owned by the plugin
+ * Workers always drain the user-blocking lane before the background lane, so responses callers
+ * wait on never queue behind initialization, and neither queues behind other plugins' work in
+ * Cordova's shared pool. Each lane has a fixed capacity; tryExecute refuses work instead of
+ * queueing without bound, and the caller decides how to shed it. Workers drop to background
+ * thread priority only while running background-lane tasks.
+ */
+final class PrioritizedExecutor {
+
+    private static final String TAG = "AgeVerificationAndroid";
+
+    static final int DEFAULT_QUEUE_CAPACITY = 32;
+
+    enum Lane {
+        /** Work a JavaScript caller is waiting on */
+        USER_BLOCKING,
+        /** Refresh, prefetch and initialization */
+        BACKGROUND
+    }
+
+    private static final class Task {
+        final Runnable runnable;
+        final long enqueuedAt;
+        final int traceCookie;
+
+        Task(Runnable runnable, long enqueuedAt, int traceCookie) {
+            this.runnable = runnable;
+            this.enqueuedAt = enqueuedAt;
+            this.traceCookie = traceCookie;
+        }
+    }
+
+    private final Object lock = new Object();
+    // Guarded by lock; indexed by Lane ordinal
+    private final List<ArrayDeque<Task>> queues;
+    private final int[] maxDepths;
+
+    private volatile int capacity = DEFAULT_QUEUE_CAPACITY;
+
+    private final LatencyHistogram[] waitTimes;
+    private final AtomicLongArray rejected;
+
+    PrioritizedExecutor(String name, int threads) {
+        int lanes = Lane.values().length;
+        queues = new ArrayList<>(lanes);
+        maxDepths = new int[lanes];
+        waitTimes = new LatencyHistogram[lanes];
+        rejected = new AtomicLongArray(lanes);
+        for (int i = 0; i < lanes; i++) {
+            queues.add(new ArrayDeque<>());
+            waitTimes[i] = new LatencyHistogram();
+        }
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(this::runWorker, name + "-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Set the maximum number of queued tasks per lane
+     */
+    void setQueueCapacity(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    /**
+     * Queue a task unless its lane is full
+     * @return false if the task was rejected
+     */
+    boolean tryExecute(Lane lane, Runnable runnable) {
+        int index = lane.ordinal();
+        synchronized (lock) {
+            ArrayDeque<Task> queue = queues.get(index);
+            if (queue.size() >= capacity) {
+                rejected.incrementAndGet(index);
+                return false;
+            }
+            int traceCookie = AgeVerificationTrace.beginAsync(AgeVerificationTrace.QUEUE_WAIT);
+            queue.addLast(new Task(runnable, SystemClock.elapsedRealtime(), traceCookie));
+            maxDepths[index] = Math.max(maxDepths[index], queue.size());
+            lock.notify();
+        }
+        return true;
+    }
+
+    /**
+     * Admission check for work that will reach a lane later: refuses, and counts as rejected, while
+     * the lane is already full
+     * @return false if the lane is full
+     */
+    boolean tryAdmit(Lane lane) {
+        int index = lane.ordinal();
+        synchronized (lock) {
+            if (queues.get(index).size() < capacity) {
+                return true;
+            }
+        }
+        rejected.incrementAndGet(index);
+        return false;
+    }
+
+    /**
+     * An Executor for one lane, for periodic work that can simply be skipped when saturated
+     * Tasks the lane refuses are dropped and counted as rejected.
+     */
+    Executor lane(Lane lane) {
+        return runnable -> tryExecute(lane, runnable);
+    }
+
+    /**
+     * Tasks currently waiting in a lane
+     */
+    int getQueueDepth(Lane lane) {
+        synchronized (lock) {
+            return queues.get(lane.ordinal()).size();
+        }
+    }
+
+    /**
+     * Write depth, peak depth, rejections and wait-time histogram per lane as a JSON object
+     * @param reset Whether to clear peaks, rejections and histograms as they are read
+     */
+    void writeTo(JsonResponseWriter writer, boolean reset) {
+        writer.beginObject();
+        for (Lane lane : Lane.values()) {
+            int index = lane.ordinal();
+            int depth;
+            int maxDepth;
+            synchronized (lock) {
+                depth = queues.get(index).size();
+                maxDepth = maxDepths[index];
+                if (reset) {
+                    maxDepths[index] = depth;
+                }
+            }
+            writer.name(lane == Lane.USER_BLOCKING ? "userBlocking" : "background").beginObject()
+                .field("queueDepth", depth)
+                .field("maxQueueDepth", maxDepth)
+                .field("rejected", reset ? rejected.getAndSet(index, 0) : rejected.get(index));
+            writer.name("wait");
+            waitTimes[index].writeTo(writer, reset);
+            writer.endObject();
+        }
+        writer.endObject();
+    }
+
+    private void runWorker() {
+        int priority = Process.THREAD_PRIORITY_DEFAULT;
+        while (true) {
+            Task task;
+            int lane;
+            synchronized (lock) {
+                while ((lane = nextLane()) < 0) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        // Daemon workers live as long as the process; keep serving
+                    }
+                }
+                task = queues.get(lane).pollFirst();
+            }
+            AgeVerificationTrace.endAsync(AgeVerificationTrace.QUEUE_WAIT, task.traceCookie);
+            waitTimes[lane].record(SystemClock.elapsedRealtime() - task.enqueuedAt);
+            // Gate checks run at default priority; only refreshes yield to the UI
+            int lanePriority = lane == Lane.BACKGROUND.ordinal()
+                ? Process.THREAD_PRIORITY_BACKGROUND
+                : Process.THREAD_PRIORITY_DEFAULT;
+            if (lanePriority != priority) {
+                Process.setThreadPriority(lanePriority);
+                priority = lanePriority;
+            }
+            try {
+                task.runnable.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Plugin task failed", e);
+            }
+        }
+    }
+
+    // Highest-priority non-empty lane, or -1; call with lock held
+    private int nextLane() {
+        for (int i = 0; i < queues.size(); i++) {
+            if (!queues.get(i).isEmpty()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,123 @@
+package com.anthropic.ageverification;
+
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Single low-priority daemon thread that runs tasks in order and measures how long each one waited
+ * The enqueue time and trace cookie are stored in the task's ring slot rather than in a wrapper,
+ * so measuring queue wait doesn't allocate per task. The ring doubles when full and never shrinks.
+ */
+final class QueueTimedExecutor implements Executor {
+
+    private static final String TAG = "AgeVerificationAndroid";
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Receives the time each task spent queued
+     */
+    interface WaitRecorder {
+        void recordWait(long waitMs);
+    }
+
+    private final Object lock = new Object();
+    // Guarded by lock; parallel rings holding size tasks starting at head
+    private Runnable[] tasks = new Runnable[INITIAL_CAPACITY];
+    private long[] enqueuedAt = new long[INITIAL_CAPACITY];
+    private int[] traceCookies = new int[INITIAL_CAPACITY];
+    private int head;
+    private int size;
+
+    private volatile WaitRecorder waitRecorder;
+
+    QueueTimedExecutor(String name) {
+        Thread worker = new Thread(() -> {
+            Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+            runWorker();
+        }, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Set where queue wait times are recorded; they are dropped until this is called
+     */
+    void setWaitRecorder(WaitRecorder waitRecorder) {
+        this.waitRecorder = waitRecorder;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        int traceCookie = AgeVerificationTrace.beginAsync(AgeVerificationTrace.CALLBACK_QUEUE_WAIT);
+        long now = SystemClock.elapsedRealtime();
+        synchronized (lock) {
+            if (size == tasks.length) {
+                grow();
+            }
+            int tail = (head + size) % tasks.length;
+            tasks[tail] = task;
+            enqueuedAt[tail] = now;
+            traceCookies[tail] = traceCookie;
+            size++;
+            lock.notify();
+        }
+    }
+
+    private void runWorker() {
+        while (true) {
+            Runnable task;
+            long queuedAt;
+            int traceCookie;
+            synchronized (lock) {
+                while (size == 0) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        // Daemon worker lives as long as the process; keep serving
+                    }
+                }
+                task = tasks[head];
+                queuedAt = enqueuedAt[head];
+                traceCookie = traceCookies[head];
+                tasks[head] = null;
+                head = (head + 1) % tasks.length;
+                size--;
+            }
+            AgeVerificationTrace.endAsync(AgeVerificationTrace.CALLBACK_QUEUE_WAIT, traceCookie);
+            WaitRecorder recorder = waitRecorder;
+            if (recorder != null) {
+                recorder.recordWait(SystemClock.elapsedRealtime() - queuedAt);
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Callback task failed", e);
+            }
+        }
+    }
+
+    // Call with lock held and the ring full
+    private void grow() {
+        int capacity = tasks.length * 2;
+        Runnable[] grownTasks = new Runnable[capacity];
+        long[] grownEnqueuedAt = new long[capacity];
+        int[] grownTraceCookies = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            int from = (head + i) % tasks.length;
+            grownTasks[i] = tasks[from];
+            grownEnqueuedAt[i] = enqueuedAt[from];
+            grownTraceCookies[i] = traceCookies[from];
+        }
+        tasks = grownTasks;
+        enqueuedAt = grownEnqueuedAt;
+        traceCookies = grownTraceCookies;
+        head = 0;
+    }
+}
@@ -0,0 +1,23 @@
+package com.anthropic.ageverification;
+
+/**
+ * Request to Google Play refused by the rate limiter before it was sent
+ */
+final class RateLimitedException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterMs;
+
+    RateLimitedException(long retryAfterMs) {
+        super("Too many age signals requests; retry in " + retryAfterMs + " ms");
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    /**
+     * Milliseconds until the limiter would allow the request
+     */
+    long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+}
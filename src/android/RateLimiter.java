@@ -0,0 +1,138 @@
+package com.anthropic.ageverification;
+
+import android.os.SystemClock;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token buckets in front of requests to Google Play, one per action plus any extra buckets
+ * Each bucket refills at a steady rate up to a burst size. Buckets are kept as a single
+ * "theoretical arrival time" per action (the generic cell rate algorithm), so acquiring a token is
+ * one compare-and-set on a long.
+ */
+final class RateLimiter {
+
+    static final double DEFAULT_RATE_PER_SECOND = 10;
+    static final int DEFAULT_BURST = 20;
+
+    private static final long MICROS_PER_SECOND = 1000 * 1000;
+
+    private final AtomicLong[] arrivalTimes;
+    // Per action; an interval of 0 disables limiting for that action
+    private final long[] intervalMicros;
+    private final long[] toleranceMicros;
+    private final AtomicLongArray refused;
+    private final AtomicLongArray rejected;
+    private final AtomicLongArray servedFromCache;
+
+    RateLimiter(int actionCount) {
+        arrivalTimes = new AtomicLong[actionCount];
+        intervalMicros = new long[actionCount];
+        toleranceMicros = new long[actionCount];
+        refused = new AtomicLongArray(actionCount);
+        rejected = new AtomicLongArray(actionCount);
+        servedFromCache = new AtomicLongArray(actionCount);
+        for (int i = 0; i < actionCount; i++) {
+            arrivalTimes[i] = new AtomicLong();
+            configure(i, DEFAULT_RATE_PER_SECOND, DEFAULT_BURST);
+        }
+    }
+
+    /**
+     * Called on every plugin initialization. A bucket is only emptied when its limit changes, so
+     * reloading the WebView can't be used to get a fresh burst.
+     * @param action Action index, as in AgeVerificationMetrics
+     * @param ratePerSecond Sustained requests per second; 0 or less disables limiting
+     * @param burst Requests allowed back to back after an idle period
+     */
+    synchronized void configure(int action, double ratePerSecond, int burst) {
+        long interval = 0;
+        long tolerance = 0;
+        if (ratePerSecond > 0) {
+            interval = Math.max(1, (long) (MICROS_PER_SECOND / ratePerSecond));
+            tolerance = interval * (Math.max(1, burst) - 1);
+        }
+        if (interval == intervalMicros[action] && tolerance == toleranceMicros[action]) {
+            return;
+        }
+        intervalMicros[action] = interval;
+        toleranceMicros[action] = tolerance;
+        arrivalTimes[action].set(0);
+    }
+
+    /**
+     * Parse a "ratePerSecond:burst" preference value, e.g. "10:20". "0" disables limiting.
+     * @return Whether the value was valid and applied
+     */
+    boolean configure(int action, String spec) {
+        try {
+            String[] parts = spec.trim().split(":");
+            double rate = Double.parseDouble(parts[0]);
+            int burst = parts.length > 1 ? Integer.parseInt(parts[1]) : DEFAULT_BURST;
+            configure(action, rate, burst);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Take a token for a request
+     * @return 0 if the request may proceed, otherwise milliseconds until a token is available
+     */
+    long tryAcquire(int action) {
+        long interval = intervalMicros[action];
+        if (interval == 0) {
+            return 0;
+        }
+        long tolerance = toleranceMicros[action];
+        AtomicLong arrivalTime = arrivalTimes[action];
+        long now = SystemClock.elapsedRealtimeNanos() / 1000;
+        while (true) {
+            long stored = arrivalTime.get();
+            long theoretical = Math.max(stored, now);
+            if (theoretical - now > tolerance) {
+                refused.incrementAndGet(action);
+                // Round up so retrying after the hint always succeeds
+                return Math.max(1, (theoretical - tolerance - now + 999) / 1000);
+            }
+            if (arrivalTime.compareAndSet(stored, theoretical + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Record a call turned away by the limiter
+     * @param servedFromCache Whether it was answered from the last-known snapshot instead
+     */
+    void recordRejection(int action, boolean servedFromCache) {
+        if (servedFromCache) {
+            this.servedFromCache.incrementAndGet(action);
+        } else {
+            rejected.incrementAndGet(action);
+        }
+    }
+
+    /**
+     * Requests to Google Play the limiter refused
+     */
+    long getRefused(int action) {
+        return refused.get(action);
+    }
+
+    /**
+     * Calls rejected with a rate_limited error
+     */
+    long getRejected(int action) {
+        return rejected.get(action);
+    }
+
+    /**
+     * Calls over the limit that were answered from the last-known snapshot
+     */
+    long getServedFromCache(int action) {
+        return servedFromCache.get(action);
+    }
+}
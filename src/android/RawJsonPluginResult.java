@@ -0,0 +1,28 @@
+package com.anthropic.ageverification;
+
+import org.apache.cordova.PluginResult;
+
+/**
+ * PluginResult carrying JSON that has already been serialized
+ * Cordova's own JSON results take a JSONObject and serialize it again; this hands the bridge the
+ * prebuilt string as-is.
+ */
+final class RawJsonPluginResult extends PluginResult {
+
+    private final String json;
+
+    RawJsonPluginResult(Status status, String json) {
+        super(status, (String) null);
+        this.json = json;
+    }
+
+    @Override
+    public int getMessageType() {
+        return MESSAGE_TYPE_JSON;
+    }
+
+    @Override
+    public String getMessage() {
+        return json;
+    }
+}
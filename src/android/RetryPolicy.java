@@ -0,0 +1,102 @@
+package com.anthropic.ageverification;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether and when a failed age signals request is retried
+ * Only transient Play errors are retried, with exponential backoff and full jitter. A
+ * process-wide token budget caps retries to a fraction of first attempts so an outage can't
+ * multiply load on Play Services.
+ */
+final class RetryPolicy {
+
+    static final int DEFAULT_MAX_ATTEMPTS = 3;
+    static final int DEFAULT_BASE_DELAY_MS = 250;
+    static final int DEFAULT_MAX_DELAY_MS = 4000;
+    static final int DEFAULT_BUDGET = 10;
+
+    // Each first attempt earns a tenth of a retry, so sustained retries stay under 10% extra load
+    private static final double RETRIES_PER_REQUEST = 0.1;
+
+    private volatile int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+    private volatile long baseDelayMs = DEFAULT_BASE_DELAY_MS;
+    private volatile long maxDelayMs = DEFAULT_MAX_DELAY_MS;
+    private final TokenBudget budget = new TokenBudget(DEFAULT_BUDGET, RETRIES_PER_REQUEST);
+    // Guarded by this
+    private int budgetCapacity = DEFAULT_BUDGET;
+
+    private final AtomicLong retriesScheduled = new AtomicLong();
+    private final AtomicLong retriesDeniedByBudget = new AtomicLong();
+
+    /**
+     * Called on every plugin initialization. The banked tokens are only refilled when the budget
+     * size changes, so reloading the WebView can't hand out a fresh budget mid-outage.
+     * @param maxAttempts Total attempts per request including the first; 1 disables retries
+     * @param baseDelayMs Backoff ceiling for the first retry, doubled for each further retry
+     * @param maxDelayMs Upper bound on the backoff ceiling
+     * @param budget Maximum retry tokens banked across the process
+     */
+    synchronized void configure(int maxAttempts, long baseDelayMs, long maxDelayMs, int budget) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMs = Math.max(0, baseDelayMs);
+        this.maxDelayMs = Math.max(this.baseDelayMs, maxDelayMs);
+        int capacity = Math.max(0, budget);
+        if (capacity != budgetCapacity) {
+            budgetCapacity = capacity;
+            this.budget.configure(capacity, RETRIES_PER_REQUEST);
+        }
+    }
+
+    /**
+     * Whether a Play error code is worth retrying: NETWORK_ERROR (-3), CANNOT_BIND_TO_SERVICE (-5)
+     * and CLIENT_TRANSIENT_ERROR (-8). Missing or outdated Play components won't fix themselves.
+     */
+    static boolean isTransient(int code) {
+        return code == -3 || code == -5 || code == -8;
+    }
+
+    /**
+     * Credit the retry budget for a new request
+     */
+    void onRequestStarted() {
+        budget.deposit();
+    }
+
+    /**
+     * Decide whether to retry after a failed attempt
+     * @param e The failure
+     * @param attempt The attempt that failed, starting at 1
+     * @return Delay before the next attempt in milliseconds, or -1 to give up
+     */
+    long nextRetryDelayMs(Exception e, int attempt) {
+        if (attempt >= maxAttempts || !(e instanceof AgeSignalsProviderException)
+                || !isTransient(((AgeSignalsProviderException) e).getErrorCode())) {
+            return -1;
+        }
+        if (!budget.tryWithdraw()) {
+            retriesDeniedByBudget.incrementAndGet();
+            return -1;
+        }
+        retriesScheduled.incrementAndGet();
+
+        // Full jitter: uniform between 0 and the exponential ceiling
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        return ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+    }
+
+    long getRetriesScheduled() {
+        return retriesScheduled.get();
+    }
+
+    long getRetriesDeniedByBudget() {
+        return retriesDeniedByBudget.get();
+    }
+
+    /**
+     * Whole retry tokens currently available
+     */
+    long getBudgetRemaining() {
+        return budget.getRemaining();
+    }
+}
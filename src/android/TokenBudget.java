@@ -0,0 +1,74 @@
+package com.anthropic.ageverification;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps extra requests, such as retries and hedges, to a fraction of regular ones
+ * Every regular request deposits a fraction of a token up to the capacity, and every extra request
+ * withdraws a whole token. Amounts are kept in thousandths of a token so updates are single CAS
+ * operations on a long.
+ */
+final class TokenBudget {
+
+    private static final long MILLI_TOKENS_PER_TOKEN = 1000;
+
+    private final AtomicLong milliTokens;
+    private volatile long capacityMilliTokens;
+    private volatile long depositMilliTokens;
+
+    /**
+     * @param capacity Maximum whole tokens banked
+     * @param tokensPerRequest Fraction of a token each regular request earns
+     */
+    TokenBudget(int capacity, double tokensPerRequest) {
+        milliTokens = new AtomicLong();
+        configure(capacity, tokensPerRequest);
+    }
+
+    /**
+     * Reconfigure and refill the budget to its new capacity
+     */
+    void configure(int capacity, double tokensPerRequest) {
+        capacityMilliTokens = Math.max(0, capacity) * MILLI_TOKENS_PER_TOKEN;
+        depositMilliTokens = Math.max(0, Math.round(tokensPerRequest * MILLI_TOKENS_PER_TOKEN));
+        milliTokens.set(capacityMilliTokens);
+    }
+
+    /**
+     * Credit the budget for a regular request
+     */
+    void deposit() {
+        long capacity = capacityMilliTokens;
+        long amount = depositMilliTokens;
+        while (true) {
+            long current = milliTokens.get();
+            long next = Math.min(capacity, current + amount);
+            if (current == next || milliTokens.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Spend one token for an extra request
+     * @return false if the budget is exhausted
+     */
+    boolean tryWithdraw() {
+        while (true) {
+            long current = milliTokens.get();
+            if (current < MILLI_TOKENS_PER_TOKEN) {
+                return false;
+            }
+            if (milliTokens.compareAndSet(current, current - MILLI_TOKENS_PER_TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Whole tokens currently available
+     */
+    long getRemaining() {
+        return milliTokens.get() / MILLI_TOKENS_PER_TOKEN;
+    }
+}
@@ -335,6 +335,30 @@ class AgeVerificationIOS: CDVPlugin {
     }
     #endif
 
+    // MARK: - Check Multiple Ages (Android only)
+
+    /// DeclaredAgeRange accepts at most 3 age gates per request, so arbitrary threshold lists
+    /// can't be evaluated from a single response on iOS
+    @objc(isUserAboveAges:)
+    func isUserAboveAges(command: CDVInvokedUrlCommand) {
+        let pluginResult = CDVPluginResult(
+            status: CDVCommandStatus_ERROR,
+            messageAs: ["error": "unsupported", "message": "isUserAboveAges is only available on Android"]
+        )
+        self.commandDelegate.send(pluginResult, callbackId: command.callbackId)
+    }
+
+    // MARK: - Filter By Minimum Age (Android only)
+
+    @objc(filterByMinimumAge:)
+    func filterByMinimumAge(command: CDVInvokedUrlCommand) {
+        let pluginResult = CDVPluginResult(
+            status: CDVCommandStatus_ERROR,
+            messageAs: ["error": "unsupported", "message": "filterByMinimumAge is only available on Android"]
+        )
+        self.commandDelegate.send(pluginResult, callbackId: command.callbackId)
+    }
+
     // MARK: - Check Age Signals (iOS implementation - maps to requestAgeRange)
 
     /// For cross-platform compatibility with Android's checkAgeSignals
@@ -363,6 +387,69 @@ class AgeVerificationIOS: CDVPlugin {
         #endif
     }
 
+    // MARK: - Invalidate Cache
+
+    /// For cross-platform compatibility with Android's result cache
+    /// iOS does not cache age range responses, so there is nothing to clear
+    @objc(invalidateCache:)
+    func invalidateCache(command: CDVInvokedUrlCommand) {
+        let pluginResult = CDVPluginResult(status: CDVCommandStatus_OK)
+        self.commandDelegate.send(pluginResult, callbackId: command.callbackId)
+    }
+
+    // MARK: - Get Metrics (Android only)
+
+    @objc(getMetrics:)
+    func getMetrics(command: CDVInvokedUrlCommand) {
+        let pluginResult = CDVPluginResult(
+            status: CDVCommandStatus_ERROR,
+            messageAs: ["error": "unsupported", "message": "getMetrics is only available on Android"]
+        )
+        self.commandDelegate.send(pluginResult, callbackId: command.callbackId)
+    }
+
+    // MARK: - Subscriptions (Android only)
+
+    @objc(subscribe:)
+    func subscribe(command: CDVInvokedUrlCommand) {
+        let pluginResult = CDVPluginResult(
+            status: CDVCommandStatus_ERROR,
+            messageAs: ["error": "unsupported", "message": "subscribe is only available on Android"]
+        )
+        self.commandDelegate.send(pluginResult, callbackId: command.callbackId)
+    }
+
+    @objc(unsubscribe:)
+    func unsubscribe(command: CDVInvokedUrlCommand) {
+        let pluginResult = CDVPluginResult(
+            status: CDVCommandStatus_ERROR,
+            messageAs: ["error": "unsupported", "message": "unsubscribe is only available on Android"]
+        )
+        self.commandDelegate.send(pluginResult, callbackId: command.callbackId)
+    }
+
+    // MARK: - Cancel (Android only)
+
+    @objc(cancel:)
+    func cancel(command: CDVInvokedUrlCommand) {
+        let pluginResult = CDVPluginResult(
+            status: CDVCommandStatus_ERROR,
+            messageAs: ["error": "unsupported", "message": "cancel is only available on Android"]
+        )
+        self.commandDelegate.send(pluginResult, callbackId: command.callbackId)
+    }
+
+    // MARK: - Initial Snapshot (Android only)
+
+    @objc(getInitialSnapshot:)
+    func getInitialSnapshot(command: CDVInvokedUrlCommand) {
+        let pluginResult = CDVPluginResult(
+            status: CDVCommandStatus_ERROR,
+            messageAs: ["error": "unsupported", "message": "getInitialSnapshot is only available on Android"]
+        )
+        self.commandDelegate.send(pluginResult, callbackId: command.callbackId)
+    }
+
     // MARK: - Get Platform Info
 
     /// Get information about the current platform and API availability
@@ -20,6 +20,22 @@ declare namespace AgeVerification {
         source: 'selfDeclared' | 'guardianDeclared' | 'verified' | 'supervised' | 'unknown' | null;
         /** Active parental controls (iOS only, empty array on Android) */
         parentalControls: ('communicationLimits' | 'screenTime' | 'contentRestrictions')[];
+        /** Whether the result was answered from the native cache (Android only) */
+        fromCache?: boolean;
+        /** Whether the result is a last-known-good snapshot from a previous launch (Android only) */
+        stale?: boolean;
+        /** Age of the underlying data in milliseconds (Android only) */
+        ageMs?: number;
+        /** Requests sent to Google Play for this result including retries, 0 when cached (Android only) */
+        attempts?: number;
+        /** Whether the deadline passed and the last-known result was returned instead (Android only) */
+        timedOut?: boolean;
+        /** Whether the rate limit was exhausted and the last-known result was returned instead (Android only) */
+        rateLimited?: boolean;
+        /** Whether the plugin's call queue was full and the last-known result was returned instead (Android only) */
+        overloaded?: boolean;
+        /** Milliseconds of waiting saved by the startup prefetch, when the result came from it (Android only) */
+        prefetchLeadMs?: number;
     }
 
     /**
@@ -38,6 +54,84 @@ declare namespace AgeVerification {
         upperBound: number | null;
         /** Whether the status is unknown (Android only) */
         unknown?: boolean;
+        /** Whether the result was answered from the native cache (Android only) */
+        fromCache?: boolean;
+        /** Whether the result is a last-known-good snapshot from a previous launch (Android only) */
+        stale?: boolean;
+        /** Age of the underlying data in milliseconds (Android only) */
+        ageMs?: number;
+        /** Requests sent to Google Play for this result including retries, 0 when cached (Android only) */
+        attempts?: number;
+        /** Whether the deadline passed and the last-known result was returned instead (Android only) */
+        timedOut?: boolean;
+        /** Whether the rate limit was exhausted and the last-known result was returned instead (Android only) */
+        rateLimited?: boolean;
+        /** Whether the plugin's call queue was full and the last-known result was returned instead (Android only) */
+        overloaded?: boolean;
+        /** Milliseconds of waiting saved by the startup prefetch, when the result came from it (Android only) */
+        prefetchLeadMs?: number;
+    }
+
+    /**
+     * Result from isUserAboveAges batch check (Android only)
+     */
+    interface AgeChecksResult {
+        /** The thresholds that were checked */
+        minimumAges: number[];
+        /** Per-threshold result in the same order: 1 above, 0 below, -1 indeterminate */
+        results: (1 | 0 | -1)[];
+        /** Whether the user declined to share their age */
+        declined: boolean;
+        /** Whether the status is unknown */
+        unknown: boolean;
+        /** Lower bound of the user's age range */
+        lowerBound: number | null;
+        /** Upper bound of the user's age range */
+        upperBound: number | null;
+        /** Whether the result was answered from the native cache */
+        fromCache?: boolean;
+        /** Whether the result is a last-known-good snapshot from a previous launch */
+        stale?: boolean;
+        /** Age of the underlying data in milliseconds */
+        ageMs?: number;
+        /** Requests sent to Google Play for this result including retries, 0 when cached */
+        attempts?: number;
+        /** Whether the rate limit was exhausted and the last-known result was returned instead */
+        rateLimited?: boolean;
+        /** Whether the plugin's call queue was full and the last-known result was returned instead */
+        overloaded?: boolean;
+        /** Milliseconds of waiting saved by the startup prefetch, when the result came from it */
+        prefetchLeadMs?: number;
+    }
+
+    /**
+     * Result metadata from filterByMinimumAge (Android only)
+     */
+    interface FilterResult {
+        /** Number of items that were evaluated */
+        itemCount: number;
+        /** Whether the user declined to share their age */
+        declined: boolean;
+        /** Whether the status is unknown */
+        unknown: boolean;
+        /** Lower bound of the user's age range */
+        lowerBound: number | null;
+        /** Upper bound of the user's age range */
+        upperBound: number | null;
+        /** Whether the result was answered from the native cache */
+        fromCache?: boolean;
+        /** Whether the result is a last-known-good snapshot from a previous launch */
+        stale?: boolean;
+        /** Age of the underlying data in milliseconds */
+        ageMs?: number;
+        /** Requests sent to Google Play for this result including retries, 0 when cached */
+        attempts?: number;
+        /** Whether the rate limit was exhausted and the last-known result was returned instead */
+        rateLimited?: boolean;
+        /** Whether the plugin's call queue was full and the last-known result was returned instead */
+        overloaded?: boolean;
+        /** Milliseconds of waiting saved by the startup prefetch, when the result came from it */
+        prefetchLeadMs?: number;
     }
 
     /**
@@ -74,6 +168,90 @@ declare namespace AgeVerification {
         minimumVersionMet: boolean;
         /** Whether the API is available */
         apiAvailable: boolean;
+        /** State of the background AgeSignalsManager construction */
+        initState: 'initializing' | 'ready' | 'failed';
+        /** How long AgeSignalsManager construction took, or null while initializing */
+        initDurationMs: number | null;
+        /** Request coalescing counters */
+        singleFlight: SingleFlightStats;
+        /** Native retry counters */
+        retry: RetryStats;
+        /** Circuit breaker state per error class */
+        circuitBreaker: {
+            /** Play Store or Play Services missing, outdated or not usable by this app */
+            unavailable: CircuitBreakerStats;
+            /** Network, binding and other errors that usually clear on their own */
+            transient: CircuitBreakerStats;
+        };
+        /** Hedged request counters */
+        hedging: HedgingStats;
+        /** Rate limiter counters per bucket: an action name, or 'background' for requests the plugin starts itself */
+        rateLimiter: {
+            [bucket: string]: {
+                /** Requests to Google Play the limiter refused */
+                requestsRefused: number;
+                /** Calls rejected with a rate_limited error */
+                rejected: number;
+                /** Calls answered from the last-known result instead */
+                servedFromCache: number;
+            };
+        };
+    }
+
+    /**
+     * Counters for concurrent calls that shared one Google Play request (Android only)
+     */
+    interface SingleFlightStats {
+        /** Number of requests actually sent to Google Play */
+        requestsStarted: number;
+        /** Number of calls that joined a request already in flight */
+        callsCoalesced: number;
+    }
+
+    /**
+     * Counters for native retries of transient Google Play errors (Android only)
+     */
+    interface RetryStats {
+        /** Number of retries sent after a transient error */
+        retriesScheduled: number;
+        /** Number of retries skipped because the process-wide retry budget was spent */
+        retriesDeniedByBudget: number;
+        /** Whole retries currently available in the budget */
+        budgetRemaining: number;
+    }
+
+    /**
+     * State and transition counters for one circuit breaker (Android only)
+     */
+    interface CircuitBreakerStats {
+        /** closed: calls pass; open: calls fail fast; half_open: a single probe is in flight */
+        state: 'closed' | 'open' | 'half_open';
+        /** Consecutive failures of this error class */
+        consecutiveFailures: number;
+        /** Number of transitions into open */
+        opens: number;
+        /** Number of probes let through after the cool-down */
+        halfOpens: number;
+        /** Number of transitions back to closed */
+        closes: number;
+        /** Number of calls failed fast without reaching Google Play */
+        rejected: number;
+    }
+
+    /**
+     * Counters for hedge requests sent after slow Google Play requests (Android only)
+     */
+    interface HedgingStats {
+        /** Whether the AgeVerificationHedge preference is on */
+        enabled: boolean;
+        /** Current hedge delay, or null until enough latencies have been observed */
+        hedgeDelayMs: number | null;
+        /** Number of hedge requests sent */
+        hedgesSent: number;
+        /** Number of hedge requests that answered first */
+        hedgesWon: number;
+        /** Number of hedges skipped because the hedge budget was spent */
+        hedgesDeniedByBudget: number;
     }
 
     type PlatformInfo = IOSPlatformInfo | AndroidPlatformInfo;
@@ -90,6 +268,94 @@ declare namespace AgeVerification {
         mostRecentApprovalDate: string | null;
     }
 
+    /**
+     * Last-known age signals published to AgeVerification.initialSnapshot (Android only)
+     */
+    interface InitialSnapshot extends AgeSignalsResult {
+        /** When the data was fetched from Google Play, in epoch milliseconds */
+        fetchedAt: number;
+    }
+
+    /**
+     * Latency histogram from getMetrics; percentiles are estimated from log-linear buckets (Android only)
+     */
+    interface LatencyHistogram {
+        /** Number of recorded latencies */
+        count: number;
+        /** Sum of recorded latencies in milliseconds */
+        sumMs: number;
+        /** Largest recorded latency in milliseconds */
+        maxMs: number;
+        /** Estimated percentiles in milliseconds, null when nothing was recorded */
+        p50: number | null;
+        p90: number | null;
+        p99: number | null;
+        /** Non-empty buckets as [lowerBoundMs, count] pairs */
+        buckets: [number, number][];
+    }
+
+    /**
+     * Metrics snapshot from getMetrics (Android only)
+     */
+    interface MetricsResult {
+        /** Call latency from arrival to answer, per action */
+        actions: {
+            requestAgeRange: LatencyHistogram;
+            isUserAboveAge: LatencyHistogram;
+            isUserAboveAges: LatencyHistogram;
+            filterByMinimumAge: LatencyHistogram;
+            checkAgeSignals: LatencyHistogram;
+        };
+        /** Count of Play errors by error code; codes with no errors are omitted */
+        errors: { [errorCode: string]: number };
+        /** Where successful answers came from */
+        cache: {
+            /** Answered from the in-memory cache */
+            hits: number;
+            /** Answered from the snapshot restored from disk */
+            staleHits: number;
+            /** Answered by a request to Google Play */
+            misses: number;
+        };
+        /** Time Play results waited for the plugin's callback thread */
+        queueWait: LatencyHistogram;
+        /** Time spent processing each Play result, including building and sending responses */
+        callbacks: LatencyHistogram;
+        /** The same for results processed on the main thread; expected to stay empty */
+        mainThreadCallbacks: LatencyHistogram;
+        /** The plugin's own thread pool */
+        executor: {
+            /** Calls from JavaScript */
+            userBlocking: ExecutorLaneStats;
+            /** Refreshes, prefetch and initialization */
+            background: ExecutorLaneStats;
+        };
+    }
+
+    /**
+     * Queue statistics for one lane of the plugin's thread pool (Android only)
+     */
+    interface ExecutorLaneStats {
+        /** Tasks waiting now */
+        queueDepth: number;
+        /** Peak waiting tasks since startup or the last reset */
+        maxQueueDepth: number;
+        /** Tasks refused because the lane was full */
+        rejected: number;
+        /** Time tasks waited for a worker thread */
+        wait: LatencyHistogram;
+    }
+
+    /**
+     * Per-call options for fetch methods
+     */
+    interface CallOptions {
+        /** Deadline in milliseconds; on expiry the last-known result or a timeout error is returned (Android only) */
+        timeoutMs?: number;
+        /** Id to pass to cancel instead of a generated one; must be unique among calls in flight */
+        requestId?: string;
+    }
+
     /**
      * Error response
      */
@@ -104,6 +370,10 @@ declare namespace AgeVerification {
             | 'unknown'
             | 'request_failed'
             | 'parse_error'
+            | 'timeout'
+            | 'rate_limited'
+            | 'overloaded'
+            | 'cancelled'
             // Android-specific errors
             | 'api_not_available'
             | 'play_store_not_found'
@@ -119,6 +389,12 @@ declare namespace AgeVerification {
         message: string;
         /** Whether the error is retryable (Android only) */
         retryable?: boolean;
+        /** Requests sent to Google Play before giving up, including native retries; 0 when the circuit breaker failed the call fast (Android only) */
+        attempts?: number;
+        /** For rate_limited errors, milliseconds until the call would be allowed (Android only) */
+        retryAfterMs?: number;
+        /** For Google Play errors with AgeVerificationErrorLastKnown on, the last-known result and its age in milliseconds, if there is one (Android only) */
+        lastKnown?: AgeSignalsResult & { ageMs: number };
     }
 
     /**
@@ -141,6 +417,15 @@ declare namespace AgeVerification {
         US_STATE_COMPLIANCE: [13, 16, 18];
     }
 
+    /**
+     * Per-threshold results from isUserAboveAges
+     */
+    interface GateResult {
+        ABOVE: 1;
+        BELOW: 0;
+        INDETERMINATE: -1;
+    }
+
     /**
      * User status constants (primarily for Android)
      */
@@ -158,30 +443,61 @@ interface AgeVerificationPlugin {
      * Check if the age verification API is available on this device
      */
     isAvailable(
-        successCallback: (available: boolean) => void,
+        successCallback: (available: boolean, initializing: boolean) => void,
         errorCallback: (error: AgeVerification.ErrorResult) => void
     ): void;
 
     /**
      * Request the user's age range with specified age gates
      * @param ageGates Array of 1-3 age thresholds
+     * @returns Request id to pass to cancel, or undefined if the arguments are invalid
      */
     requestAgeRange(
         ageGates: number[],
         successCallback: (result: AgeVerification.AgeRangeResult) => void,
-        errorCallback: (error: AgeVerification.ErrorResult) => void
-    ): void;
+        errorCallback: (error: AgeVerification.ErrorResult) => void,
+        options?: AgeVerification.CallOptions
+    ): string | undefined;
 
     /**
      * Check if the user is at or above a specific age
      * @param minimumAge The minimum age to check against
+     * @returns Request id to pass to cancel, or undefined if the arguments are invalid
      */
     isUserAboveAge(
         minimumAge: number,
         successCallback: (result: AgeVerification.AgeCheckResult) => void,
+        errorCallback: (error: AgeVerification.ErrorResult) => void,
+        options?: AgeVerification.CallOptions
+    ): string | undefined;
+
+    /**
+     * Android-specific: Check any number of age thresholds against a single age signals result
+     * @param minimumAges Age thresholds to check
+     */
+    isUserAboveAges(
+        minimumAges: number[],
+        successCallback: (result: AgeVerification.AgeChecksResult) => void,
+        errorCallback: (error: AgeVerification.ErrorResult) => void
+    ): void;
+
+    /**
+     * Android-specific: Filter items by minimum age in a single native call
+     * @param itemMinimumAges Minimum age per item (0-150, 0 for unrestricted)
+     */
+    filterByMinimumAge(
+        itemMinimumAges: number[] | Uint8Array,
+        successCallback: (allowed: Uint8Array, result: AgeVerification.FilterResult) => void,
         errorCallback: (error: AgeVerification.ErrorResult) => void
     ): void;
 
+    /**
+     * Check whether an item passed filterByMinimumAge
+     * @param allowed Bitset from filterByMinimumAge
+     * @param index Item index in the original list
+     */
+    isItemAllowed(allowed: Uint8Array, index: number): boolean;
+
     /**
      * Get platform and API availability information
      */
@@ -193,18 +509,80 @@ interface AgeVerificationPlugin {
     /**
      * Android-specific: Get full age signals data including install ID and approval date
      * On iOS, this is equivalent to requestAgeRange with default age gates
+     * @returns Request id to pass to cancel, or undefined if the arguments are invalid
      */
     checkAgeSignals(
         successCallback: (result: AgeVerification.AgeSignalsResult) => void,
+        errorCallback: (error: AgeVerification.ErrorResult) => void,
+        options?: AgeVerification.CallOptions
+    ): string | undefined;
+
+    /**
+     * Drop any cached age signals so the next call fetches fresh data
+     * No-op on iOS, which does not cache results
+     */
+    invalidateCache(
+        successCallback: () => void,
+        errorCallback: (error: AgeVerification.ErrorResult) => void
+    ): void;
+
+    /**
+     * Android-specific: Get latency histograms and counters collected by the native plugin
+     * @param reset Clear all metrics as they are read
+     */
+    getMetrics(
+        successCallback: (metrics: AgeVerification.MetricsResult) => void,
+        errorCallback: (error: AgeVerification.ErrorResult) => void,
+        reset?: boolean
+    ): void;
+
+    /**
+     * Android-specific: Get notified when the age signals change
+     * onChange receives the current signals first, then only changes in status, bounds or approval date
+     * @returns Subscription id to pass to unsubscribe
+     */
+    subscribe(
+        onChange: (signals: AgeVerification.AgeSignalsResult) => void,
         errorCallback: (error: AgeVerification.ErrorResult) => void
+    ): string;
+
+    /**
+     * Android-specific: Stop a subscription started with subscribe
+     * @param subscriptionId Id returned by subscribe
+     */
+    unsubscribe(
+        subscriptionId: string,
+        successCallback?: () => void,
+        errorCallback?: (error: AgeVerification.ErrorResult) => void
+    ): void;
+
+    /**
+     * Android-specific: Answer a pending call early with a 'cancelled' error
+     * The shared native request keeps running and still refreshes the cache
+     * @param requestId Id returned by requestAgeRange, isUserAboveAge or checkAgeSignals
+     */
+    cancel(
+        requestId: string,
+        successCallback?: (cancelled: boolean) => void,
+        errorCallback?: (error: AgeVerification.ErrorResult) => void
     ): void;
 
+    /**
+     * Android-specific: Last-known age signals, available synchronously from deviceready when the
+     * AgeVerificationInitialSnapshot preference is true. Replaced by a newer frozen object whenever
+     * checkAgeSignals or a subscription delivers fresher data; null until then.
+     */
+    readonly initialSnapshot: Readonly<AgeVerification.InitialSnapshot> | null;
+
     /** Common age gate values */
     AGE_GATES: AgeVerification.AgeGates;
 
     /** Predefined age gate combinations */
     STANDARD_GATES: AgeVerification.StandardGates;
 
+    /** Per-threshold results from isUserAboveAges */
+    GATE_RESULT: AgeVerification.GateResult;
+
     /** User status constants (primarily for Android) */
     USER_STATUS: AgeVerification.UserStatus;
 }
@@ -9,17 +9,119 @@
  */
 
 var exec = require('cordova/exec');
+var channel = require('cordova/channel');
 
 // Constants for age validation
 var MIN_AGE = 1;
 var MAX_AGE = 150;
 
+// Subscription ids are generated here so subscribe can return one synchronously
+var nextSubscriptionId = 1;
+
+// Likewise for request ids, which fetch calls return for cancel
+var nextRequestId = 1;
+
+/**
+ * Copy a fetch call's options and tag the copy with the caller's requestId, or a new one
+ */
+function withRequestId(options) {
+    var tagged = {};
+    if (options) {
+        for (var key in options) {
+            if (Object.prototype.hasOwnProperty.call(options, key)) {
+                tagged[key] = options[key];
+            }
+        }
+    }
+    if (typeof tagged.requestId !== 'string') {
+        tagged.requestId = 'age-request-' + (nextRequestId++);
+    }
+    return tagged;
+}
+
+/**
+ * Replace AgeVerification.initialSnapshot with a frozen copy of a full age signals result,
+ * unless the current snapshot is at least as new
+ */
+function publishSnapshot(result) {
+    // Only Android results say how old their data is
+    if (!result || typeof result.ageMs !== 'number') {
+        return;
+    }
+    var fetchedAt = typeof result.fetchedAt === 'number' ? result.fetchedAt : Date.now() - result.ageMs;
+    var current = AgeVerification.initialSnapshot;
+    if (current && current.fetchedAt >= fetchedAt) {
+        return;
+    }
+    var snapshot = {};
+    for (var key in result) {
+        if (Object.prototype.hasOwnProperty.call(result, key)) {
+            snapshot[key] = result[key];
+        }
+    }
+    snapshot.fetchedAt = fetchedAt;
+    AgeVerification.initialSnapshot = Object.freeze(snapshot);
+}
+
+/**
+ * Validate the optional options object accepted by fetch calls
+ * Returns false after reporting an invalid_arguments error.
+ */
+function validateOptions(options, errorCallback) {
+    if (options === undefined || options === null) {
+        return true;
+    }
+    var timeoutMs = options.timeoutMs;
+    if (timeoutMs !== undefined && timeoutMs !== null
+            && (typeof timeoutMs !== 'number' || !Number.isInteger(timeoutMs) || timeoutMs <= 0)) {
+        if (errorCallback) {
+            errorCallback({
+                error: 'invalid_arguments',
+                message: 'timeoutMs must be a positive integer'
+            });
+        }
+        return false;
+    }
+    var requestId = options.requestId;
+    if (requestId !== undefined && requestId !== null
+            && (typeof requestId !== 'string' || requestId.length === 0)) {
+        if (errorCallback) {
+            errorCallback({
+                error: 'invalid_arguments',
+                message: 'requestId must be a non-empty string'
+            });
+        }
+        return false;
+    }
+    return true;
+}
+
 var AgeVerification = {
 
+    /**
+     * Android only: the last-known age signals, available synchronously from deviceready
+     * Published during page load when the AgeVerificationInitialSnapshot preference is true, and
+     * replaced by a newer frozen object whenever checkAgeSignals or a subscription delivers fresher
+     * data. null until then. Same shape as the checkAgeSignals result, plus fetchedAt (epoch
+     * milliseconds when the data was fetched from Google Play); check stale and fetchedAt before
+     * trusting it for anything beyond a first render.
+     *
+     * @example
+     * document.addEventListener('deviceready', function() {
+     *     var snapshot = AgeVerification.initialSnapshot;
+     *     renderGate(snapshot ? snapshot.lowerBound : null);
+     *     AgeVerification.checkAgeSignals(function(signals) {
+     *         renderGate(signals.lowerBound);
+     *     }, onError);
+     * });
+     */
+    initialSnapshot: null,
+
     /**
      * Check if the age verification API is available on this device
      *
-     * @param {Function} successCallback - Called with boolean (true if available)
+     * @param {Function} successCallback - Called with boolean (true if available) and, on Android,
+     *     a second boolean that is true while the native API is still initializing (check again later)
      * @param {Function} errorCallback - Called on error
      *
      * @example
@@ -35,8 +137,8 @@ var AgeVerification = {
     isAvailable: function(successCallback, errorCallback) {
         exec(
             function(result) {
-                // Normalize result to boolean (Android returns 1/0)
-                successCallback(result === true || result === 1);
+                // Normalize result to boolean (Android returns 1/0, or 2 while initializing)
+                successCallback(result === true || result === 1, result === 2);
             },
             errorCallback,
             'AgeVerification',
@@ -51,6 +153,10 @@ var AgeVerification = {
      * @param {number[]} ageGates - Array of 1-3 age thresholds (e.g., [13, 16, 18])
      * @param {Function} successCallback - Called with age range result object
      * @param {Function} errorCallback - Called on error
+     * @param {Object} [options] - Android only: { timeoutMs: number } answers from the last-known
+     *     result (flagged stale and timedOut) or fails with a 'timeout' error once the deadline passes;
+     *     { requestId: string } sets the id returned for cancel instead of generating one
+     * @returns {string|undefined} Request id to pass to cancel, or undefined if the arguments are invalid
      *
      * Result object structure:
      * {
@@ -59,7 +165,15 @@ var AgeVerification = {
      *     lowerBound: number | null,  // Lower bound of age range
      *     upperBound: number | null,  // Upper bound of age range
      *     source: string | null,       // iOS: 'selfDeclared'|'guardianDeclared', Android: 'verified'|'supervised'
-     *     parentalControls: string[]   // Active parental controls (iOS only)
+     *     parentalControls: string[],  // Active parental controls (iOS only)
+     *     fromCache: boolean,          // Android only: answered from the native cache
+     *     stale: boolean,              // Android only: last-known-good data from a previous launch
+     *     ageMs: number,               // Android only: age of the data in milliseconds
+     *     attempts: number,            // Android only: Play requests made, including retries (0 if cached)
+     *     timedOut?: boolean,          // Android only: answered from the last-known result at the deadline
+     *     rateLimited?: boolean,       // Android only: answered from the last-known result over the rate limit
+     *     overloaded?: boolean,        // Android only: answered from the last-known result, plugin queue full
+     *     prefetchLeadMs?: number      // Android only: time saved by the startup prefetch
      * }
      *
      * @example
@@ -78,7 +192,7 @@ var AgeVerification = {
      *     }
      * );
      */
-    requestAgeRange: function(ageGates, successCallback, errorCallback) {
+    requestAgeRange: function(ageGates, successCallback, errorCallback, options) {
         if (!Array.isArray(ageGates) || ageGates.length === 0 || ageGates.length > 3) {
             if (errorCallback) {
                 errorCallback({
@@ -111,7 +225,13 @@ var AgeVerification = {
             }
         }
 
-        exec(successCallback, errorCallback, 'AgeVerification', 'requestAgeRange', [ageGates]);
+        if (!validateOptions(options, errorCallback)) {
+            return;
+        }
+
+        var callOptions = withRequestId(options);
+        exec(successCallback, errorCallback, 'AgeVerification', 'requestAgeRange', [ageGates, callOptions]);
+        return callOptions.requestId;
     },
 
     /**
@@ -121,6 +241,8 @@ var AgeVerification = {
      * @param {number} minimumAge - The minimum age to check against
      * @param {Function} successCallback - Called with result object
      * @param {Function} errorCallback - Called on error
+     * @param {Object} [options] - Android only: { timeoutMs: number, requestId: string }, see requestAgeRange
+     * @returns {string|undefined} Request id to pass to cancel, or undefined if the arguments are invalid
      *
      * Result object structure:
      * {
@@ -128,7 +250,15 @@ var AgeVerification = {
      *     declined: boolean,
      *     minimumAge: number,
      *     lowerBound: number | null,
-     *     upperBound: number | null
+     *     upperBound: number | null,
+     *     fromCache: boolean,  // Android only: answered from the native cache
+     *     stale: boolean,      // Android only: last-known-good data from a previous launch
+     *     ageMs: number,       // Android only: age of the data in milliseconds
+     *     attempts: number,    // Android only: Play requests made, including retries (0 if cached)
+     *     timedOut?: boolean,  // Android only: answered from the last-known result at the deadline
+     *     rateLimited?: boolean, // Android only: answered from the last-known result over the rate limit
+     *     overloaded?: boolean,  // Android only: answered from the last-known result, plugin queue full
+     *     prefetchLeadMs?: number // Android only: time saved by the startup prefetch
      * }
      *
      * @example
@@ -148,7 +278,7 @@ var AgeVerification = {
      *     }
      * );
      */
-    isUserAboveAge: function(minimumAge, successCallback, errorCallback) {
+    isUserAboveAge: function(minimumAge, successCallback, errorCallback, options) {
         if (typeof minimumAge !== 'number' || !Number.isInteger(minimumAge)) {
             if (errorCallback) {
                 errorCallback({
@@ -169,7 +299,163 @@ var AgeVerification = {
             return;
         }
 
-        exec(successCallback, errorCallback, 'AgeVerification', 'isUserAboveAge', [minimumAge]);
+        if (!validateOptions(options, errorCallback)) {
+            return;
+        }
+
+        var callOptions = withRequestId(options);
+        exec(successCallback, errorCallback, 'AgeVerification', 'isUserAboveAge', [minimumAge, callOptions]);
+        return callOptions.requestId;
+    },
+
+    /**
+     * Android-specific: Check any number of age thresholds against a single age signals result
+     * Each threshold gets a tri-state result using the same rules as isUserAboveAge:
+     * AgeVerification.GATE_RESULT.ABOVE (1), BELOW (0), or INDETERMINATE (-1) when the status is unknown.
+     * On iOS, this returns an 'unsupported' error since DeclaredAgeRange accepts at most 3 gates.
+     *
+     * @param {number[]} minimumAges - Array of age thresholds to check (any length)
+     * @param {Function} successCallback - Called with result object
+     * @param {Function} errorCallback - Called on error
+     *
+     * Result object structure:
+     * {
+     *     minimumAges: number[],  // The thresholds that were checked
+     *     results: number[],      // Tri-state result per threshold, in the same order
+     *     declined: boolean,
+     *     unknown: boolean,
+     *     lowerBound: number | null,
+     *     upperBound: number | null
+     * }
+     *
+     * @example
+     * AgeVerification.isUserAboveAges(
+     *     [7, 9, 12, 13, 15, 16, 17, 18, 21],
+     *     function(result) {
+     *         result.minimumAges.forEach(function(age, i) {
+     *             var allowed = result.results[i] === AgeVerification.GATE_RESULT.ABOVE;
+     *             console.log(age + '+ content allowed:', allowed);
+     *         });
+     *     },
+     *     function(error) {
+     *         console.error('Error:', error.message);
+     *     }
+     * );
+     */
+    isUserAboveAges: function(minimumAges, successCallback, errorCallback) {
+        if (!Array.isArray(minimumAges) || minimumAges.length === 0) {
+            if (errorCallback) {
+                errorCallback({
+                    error: 'invalid_arguments',
+                    message: 'minimumAges must be a non-empty array of integers'
+                });
+            }
+            return;
+        }
+
+        for (var i = 0; i < minimumAges.length; i++) {
+            if (typeof minimumAges[i] !== 'number' || !Number.isInteger(minimumAges[i]) ||
+                minimumAges[i] < MIN_AGE || minimumAges[i] > MAX_AGE) {
+                if (errorCallback) {
+                    errorCallback({
+                        error: 'invalid_arguments',
+                        message: 'minimumAges must be integers between ' + MIN_AGE + ' and ' + MAX_AGE
+                    });
+                }
+                return;
+            }
+        }
+
+        exec(successCallback, errorCallback, 'AgeVerification', 'isUserAboveAges', [minimumAges]);
+    },
+
+    /**
+     * Android-specific: Filter a list of items by their minimum age in a single native call
+     * Each item's minimum age is evaluated against the current age signal with the same rules as
+     * isUserAboveAge. Use 0 for items without an age restriction.
+     * On iOS, this returns an 'unsupported' error.
+     *
+     * @param {number[]|Uint8Array} itemMinimumAges - Minimum age per item (0-150)
+     * @param {Function} successCallback - Called with (allowed, result): allowed is a Uint8Array
+     *     bitset where bit i is set if item i is allowed (see isItemAllowed)
+     * @param {Function} errorCallback - Called on error
+     *
+     * Result object structure:
+     * {
+     *     itemCount: number,
+     *     declined: boolean,
+     *     unknown: boolean,
+     *     lowerBound: number | null,
+     *     upperBound: number | null
+     * }
+     *
+     * @example
+     * var ages = items.map(function(item) { return item.minimumAge || 0; });
+     * AgeVerification.filterByMinimumAge(
+     *     ages,
+     *     function(allowed, result) {
+     *         var visible = items.filter(function(item, i) {
+     *             return AgeVerification.isItemAllowed(allowed, i);
+     *         });
+     *         render(visible);
+     *     },
+     *     function(error) {
+     *         console.error('Error:', error.message);
+     *     }
+     * );
+     */
+    filterByMinimumAge: function(itemMinimumAges, successCallback, errorCallback) {
+        var packed;
+        if (itemMinimumAges instanceof Uint8Array) {
+            packed = itemMinimumAges;
+        } else if (Array.isArray(itemMinimumAges)) {
+            packed = new Uint8Array(itemMinimumAges.length);
+            for (var i = 0; i < itemMinimumAges.length; i++) {
+                var age = itemMinimumAges[i];
+                if (typeof age !== 'number' || !Number.isInteger(age) || age < 0 || age > MAX_AGE) {
+                    if (errorCallback) {
+                        errorCallback({
+                            error: 'invalid_arguments',
+                            message: 'Item minimum ages must be integers between 0 and ' + MAX_AGE
+                        });
+                    }
+                    return;
+                }
+                packed[i] = age;
+            }
+        } else {
+            if (errorCallback) {
+                errorCallback({
+                    error: 'invalid_arguments',
+                    message: 'itemMinimumAges must be an array or Uint8Array'
+                });
+            }
+            return;
+        }
+
+        // Copy into a standalone buffer in case the input is a view into a larger one
+        var buffer = packed.buffer.slice(packed.byteOffset, packed.byteOffset + packed.byteLength);
+
+        exec(
+            function(allowed, result) {
+                successCallback(new Uint8Array(allowed), result);
+            },
+            errorCallback,
+            'AgeVerification',
+            'filterByMinimumAge',
+            [buffer]
+        );
+    },
+
+    /**
+     * Check whether an item passed filterByMinimumAge
+     *
+     * @param {Uint8Array} allowed - Bitset from filterByMinimumAge
+     * @param {number} index - Item index in the original list
+     * @returns {boolean}
+     */
+    isItemAllowed: function(allowed, index) {
+        return (allowed[index >> 3] & (1 << (index & 7))) !== 0;
     },
 
     /**
@@ -195,7 +481,20 @@ var AgeVerification = {
      *     sdkVersion: number,
      *     requiredSdkVersion: 23,
      *     minimumVersionMet: boolean,
-     *     apiAvailable: boolean
+     *     apiAvailable: boolean,
+     *     initState: 'initializing' | 'ready' | 'failed',
+     *     initDurationMs: number | null,
+     *     singleFlight: { requestsStarted: number, callsCoalesced: number },
+     *     retry: { retriesScheduled: number, retriesDeniedByBudget: number, budgetRemaining: number },
+     *     circuitBreaker: {
+     *         unavailable: { state: 'closed' | 'open' | 'half_open', consecutiveFailures: number,
+     *                        opens: number, halfOpens: number, closes: number, rejected: number },
+     *         transient: { ...same fields }
+     *     },
+     *     hedging: { enabled: boolean, hedgeDelayMs: number | null, hedgesSent: number,
+     *                hedgesWon: number, hedgesDeniedByBudget: number },
+     *     rateLimiter: { [bucket: string]: { requestsRefused: number, rejected: number,
+     *                                        servedFromCache: number } }
      * }
      *
      * @example
@@ -219,6 +518,8 @@ var AgeVerification = {
      *
      * @param {Function} successCallback - Called with full age signals result
      * @param {Function} errorCallback - Called on error
+     * @param {Object} [options] - Android only: { timeoutMs: number, requestId: string }, see requestAgeRange
+     * @returns {string|undefined} Request id to pass to cancel, or undefined if the arguments are invalid
      *
      * Android-specific result fields:
      * {
@@ -241,8 +542,141 @@ var AgeVerification = {
      *     }
      * );
      */
-    checkAgeSignals: function(successCallback, errorCallback) {
-        exec(successCallback, errorCallback, 'AgeVerification', 'checkAgeSignals', []);
+    checkAgeSignals: function(successCallback, errorCallback, options) {
+        if (!validateOptions(options, errorCallback)) {
+            return;
+        }
+
+        var callOptions = withRequestId(options);
+        exec(function(result) {
+            publishSnapshot(result);
+            if (successCallback) {
+                successCallback(result);
+            }
+        }, errorCallback, 'AgeVerification', 'checkAgeSignals', [callOptions]);
+        return callOptions.requestId;
+    },
+
+    /**
+     * Drop any cached age signals so the next call fetches fresh data
+     * On Android, results are cached for the AgeVerificationCacheTtlMs preference (default 5 minutes)
+     * and the last-known-good snapshot is persisted across launches; both are cleared.
+     * On iOS, nothing is cached and this is a no-op.
+     *
+     * @param {Function} successCallback - Called once the cache has been cleared
+     * @param {Function} errorCallback - Called on error
+     *
+     * @example
+     * // After the user returns from Play Store parental approval
+     * AgeVerification.invalidateCache(function() {
+     *     AgeVerification.checkAgeSignals(onSignals, onError);
+     * });
+     */
+    invalidateCache: function(successCallback, errorCallback) {
+        exec(successCallback, errorCallback, 'AgeVerification', 'invalidateCache', []);
+    },
+
+    /**
+     * Android-specific: Get latency histograms and counters collected by the native plugin
+     * On iOS, this returns an 'unsupported' error.
+     *
+     * @param {Function} successCallback - Called with the metrics snapshot
+     * @param {Function} errorCallback - Called on error
+     * @param {boolean} [reset] - Clear all metrics as they are read
+     *
+     * Histogram structure (latencies in milliseconds, percentiles estimated from buckets):
+     * {
+     *     count: number, sumMs: number, maxMs: number,
+     *     p50: number | null, p90: number | null, p99: number | null,
+     *     buckets: [lowerBoundMs, count][]  // Non-empty log-linear buckets only
+     * }
+     *
+     * Result object structure:
+     * {
+     *     actions: { requestAgeRange: Histogram, isUserAboveAge: Histogram, isUserAboveAges: Histogram,
+     *                filterByMinimumAge: Histogram, checkAgeSignals: Histogram },
+     *     errors: { [errorCode: string]: number },  // Non-zero counts only
+     *     cache: { hits: number, staleHits: number, misses: number },
+     *     queueWait: Histogram,                     // Time Play results waited for the callback thread
+     *     callbacks: Histogram,                     // Time spent processing each Play result
+     *     mainThreadCallbacks: Histogram,           // The same, on the main thread (expected empty)
+     *     executor: {                               // The plugin's own thread pool, per lane
+     *         userBlocking: Lane, background: Lane
+     *     }
+     * }
+     *
+     * Lane structure:
+     * { queueDepth: number, maxQueueDepth: number, rejected: number, wait: Histogram }
+     *
+     * @example
+     * // Upload and clear once per session
+     * AgeVerification.getMetrics(function(metrics) {
+     *     analytics.log('age_signals_p99', metrics.actions.checkAgeSignals.p99);
+     * }, onError, true);
+     */
+    getMetrics: function(successCallback, errorCallback, reset) {
+        exec(successCallback, errorCallback, 'AgeVerification', 'getMetrics', [reset === true]);
+    },
+
+    /**
+     * Android-specific: Get notified when the age signals change
+     * onChange is called with the current signals first, then again only when the status, age
+     * bounds or mostRecentApprovalDate change (for example SUPERVISED_APPROVAL_PENDING becoming
+     * SUPERVISED). A single native refresh loop serves all subscribers, every
+     * AgeVerificationSubscriptionIntervalMs (default 60 seconds).
+     * On iOS, this returns an 'unsupported' error.
+     *
+     * @param {Function} onChange - Called with a checkAgeSignals-style result on every change
+     * @param {Function} errorCallback - Called on error
+     * @returns {string} Subscription id to pass to unsubscribe
+     *
+     * @example
+     * var subscription = AgeVerification.subscribe(function(signals) {
+     *     if (signals.userStatus === 'supervised') {
+     *         unlockContent();
+     *     }
+     * }, onError);
+     * // Later
+     * AgeVerification.unsubscribe(subscription);
+     */
+    subscribe: function(onChange, errorCallback) {
+        var subscriptionId = 'age-signals-' + (nextSubscriptionId++);
+        exec(function(signals) {
+            publishSnapshot(signals);
+            onChange(signals);
+        }, errorCallback, 'AgeVerification', 'subscribe', [subscriptionId]);
+        return subscriptionId;
+    },
+
+    /**
+     * Android-specific: Stop a subscription started with subscribe
+     *
+     * @param {string} subscriptionId - Id returned by subscribe
+     * @param {Function} [successCallback] - Called once the subscription has stopped
+     * @param {Function} [errorCallback] - Called on error, e.g. for an unknown id
+     */
+    unsubscribe: function(subscriptionId, successCallback, errorCallback) {
+        exec(successCallback, errorCallback, 'AgeVerification', 'unsubscribe', [subscriptionId]);
+    },
+
+    /**
+     * Android-specific: Answer a pending call early with a 'cancelled' error
+     * The native request behind it is shared with other calls, so it keeps running and still
+     * refreshes the cache. Pending calls are also dropped automatically when the page navigates
+     * or reloads.
+     *
+     * @param {string} requestId - Id returned by requestAgeRange, isUserAboveAge or checkAgeSignals
+     * @param {Function} [successCallback] - Called with true if a pending call was cancelled,
+     *     false if it had already been answered
+     * @param {Function} [errorCallback] - Called on error
+     *
+     * @example
+     * var requestId = AgeVerification.checkAgeSignals(onSignals, onError);
+     * // The user left the gate screen
+     * AgeVerification.cancel(requestId);
+     */
+    cancel: function(requestId, successCallback, errorCallback) {
+        exec(successCallback, errorCallback, 'AgeVerification', 'cancel', [requestId]);
     },
 
     // Convenience constants for common age gates
@@ -265,6 +699,13 @@ var AgeVerification = {
         US_STATE_COMPLIANCE: [13, 16, 18]
     },
 
+    // Per-threshold results from isUserAboveAges
+    GATE_RESULT: {
+        ABOVE: 1,
+        BELOW: 0,
+        INDETERMINATE: -1
+    },
+
     // User status constants (primarily for Android)
     USER_STATUS: {
         VERIFIED: 'verified',
@@ -275,4 +716,22 @@ var AgeVerification = {
     }
 };
 
+// Hold deviceready until the last-known snapshot is published, like cordova-plugin-device does
+// for device info. Only when AgeVerificationInitialSnapshot is on, which the Android plugin
+// exposes before the page loads, so other apps don't wait on a bridge round trip at startup.
+var startupConfig = window.AgeVerificationStartup;
+if (startupConfig && startupConfig.isInitialSnapshotEnabled()) {
+    channel.createSticky('onAgeVerificationReady');
+    channel.waitForInitialization('onAgeVerificationReady');
+    channel.onCordovaReady.subscribe(function() {
+        exec(function(snapshot) {
+            publishSnapshot(snapshot);
+            channel.onAgeVerificationReady.fire();
+        }, function() {
+            // deviceready must not wait on a failed call
+            channel.onAgeVerificationReady.fire();
+        }, 'AgeVerification', 'getInitialSnapshot', []);
+    });
+}
+
 module.exports = AgeVerification;